@@ -1,6 +1,5 @@
 package at.srsyntax.farmingworld.api.farmworld;
 
-import com.google.gson.Gson;
 import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -42,8 +41,13 @@ public class LocationCache extends SpawnLocation {
         this.world = location.getWorld().getName();
     }
 
+    public LocationCache(String world, double x, double y, double z, float pitch, float yaw) {
+        super(x, y, z, pitch, yaw);
+        this.world = world;
+    }
+
     public static LocationCache fromJson(String json) {
-        return new Gson().fromJson(json, LocationCache.class);
+        return GSON.fromJson(json, LocationCache.class);
     }
 
     public Location toBukkit() {
@@ -2,6 +2,8 @@ package at.srsyntax.farmingworld.api.farmworld;
 
 import org.bukkit.Location;
 
+import java.util.concurrent.CompletableFuture;
+
 /*
  * MIT License
  *
@@ -27,7 +29,20 @@ import org.bukkit.Location;
  */
 public interface LocationCacher {
 
-    void addLocation(String id, Location location);
-    void removeLocation(String id);
+    void addLocation(Location location);
+    int getCachedLocations();
+
+    /**
+     * Take a location from the cache. If the cache is empty no search is started,
+     * a location close to a recent target or the world spawn is returned instead.
+     * Use {@link #requestLocation()} to wait for a random location.
+     */
     Location randomLocation();
+
+    /**
+     * Take a location from the cache. If the cache is empty the request waits
+     * until the next location has been generated.
+     * @return a future which is completed on the main thread
+     */
+    CompletableFuture<Location> requestLocation();
 }
@@ -5,6 +5,7 @@ import org.bukkit.Material;
 import org.bukkit.World;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /*
  * MIT License
@@ -45,5 +46,17 @@ public abstract class LocationRandomizer {
         this(blacklist, farmWorld.getWorld(), farmWorld.getBorder());
     }
 
+    /**
+     * Search a random location on the calling thread.
+     * Chunks that are not loaded are loaded synchronously, so this should not be used on the main thread for large worlds.
+     * @return a safe location within the border.
+     */
     public abstract Location random();
+
+    /**
+     * Search a random location without blocking the main thread.
+     * Chunks are loaded on the main thread, the columns are checked against chunk snapshots on a worker thread.
+     * @return a future which is completed on the main thread with a safe location within the border.
+     */
+    public abstract CompletableFuture<Location> randomAsync();
 }
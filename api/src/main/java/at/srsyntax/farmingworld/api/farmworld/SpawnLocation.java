@@ -33,6 +33,8 @@ import org.bukkit.Location;
 @Getter
 public class SpawnLocation {
 
+    protected static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
     protected final double x, y, z;
     protected final float pitch, yaw;
 
@@ -44,7 +46,7 @@ public class SpawnLocation {
     }
 
     public static SpawnLocation fromJson(String json) {
-        return new Gson().fromJson(json, SpawnLocation.class);
+        return GSON.fromJson(json, SpawnLocation.class);
     }
 
     public Location toBukkit(FarmWorld farmWorld) {
@@ -57,6 +59,6 @@ public class SpawnLocation {
 
     @Override
     public String toString() {
-        return new GsonBuilder().disableHtmlEscaping().create().toJson(this);
+        return GSON.toJson(this);
     }
 }
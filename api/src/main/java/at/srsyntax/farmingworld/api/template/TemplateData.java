@@ -6,6 +6,8 @@ import lombok.Getter;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /*
  * MIT License
@@ -44,6 +46,14 @@ public class TemplateData {
         FileUtil.copy(file, target);
     }
 
+    /**
+     * Copies the template without blocking the calling thread.
+     * @see FileUtil#copyAsync(File, File, Executor)
+     */
+    public CompletableFuture<Void> copyAsync(File target, Executor executor) {
+        return FileUtil.copyAsync(file, target, executor);
+    }
+
     public String getName() {
         return file.getName();
     }
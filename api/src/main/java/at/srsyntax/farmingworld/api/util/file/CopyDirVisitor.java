@@ -1,10 +1,13 @@
 package at.srsyntax.farmingworld.api.util.file;
 
-import lombok.AllArgsConstructor;
-
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /*
  * MIT License
@@ -29,11 +32,26 @@ import java.nio.file.attribute.BasicFileAttributes;
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
-@AllArgsConstructor
 public class CopyDirVisitor extends SimpleFileVisitor<Path> {
 
     private final Path src, target;
     private final CopyOption copyOption;
+    private final Executor executor;
+    private final List<CompletableFuture<Void>> copies = new ArrayList<>();
+
+    public CopyDirVisitor(Path src, Path target, CopyOption copyOption) {
+        this(src, target, copyOption, null);
+    }
+
+    /**
+     * @param executor copies the files in parallel, the directories are still created while walking
+     */
+    public CopyDirVisitor(Path src, Path target, CopyOption copyOption, Executor executor) {
+        this.src = src;
+        this.target = target;
+        this.copyOption = copyOption;
+        this.executor = executor;
+    }
 
     @Override
     public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) throws IOException {
@@ -45,9 +63,28 @@ public class CopyDirVisitor extends SimpleFileVisitor<Path> {
 
     @Override
     public FileVisitResult visitFile(Path path, BasicFileAttributes attributes) throws IOException {
-        if (!path.getFileName().toString().equalsIgnoreCase("uid.dat")) {
-            Files.copy(path, target.resolve(src.relativize(path)), copyOption);
+        if (path.getFileName().toString().equalsIgnoreCase("uid.dat")) return FileVisitResult.CONTINUE;
+
+        final Path destination = target.resolve(src.relativize(path));
+        if (executor == null) {
+            Files.copy(path, destination, copyOption);
+            return FileVisitResult.CONTINUE;
         }
+
+        copies.add(CompletableFuture.runAsync(() -> {
+            try {
+                Files.copy(path, destination, copyOption);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }, executor));
         return FileVisitResult.CONTINUE;
     }
+
+    /**
+     * @return completes when all files submitted to the executor are copied
+     */
+    public CompletableFuture<Void> getCopies() {
+        return CompletableFuture.allOf(copies.toArray(new CompletableFuture[0]));
+    }
 }
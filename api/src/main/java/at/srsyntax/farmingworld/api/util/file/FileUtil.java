@@ -6,6 +6,8 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /*
  * MIT License
@@ -55,4 +57,45 @@ public class FileUtil {
         if (!src.exists()) throw new NullPointerException();
         Files.walkFileTree(src.toPath(), new CopyDirVisitor(src.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING));
     }
+
+    /**
+     * Copies a folder without blocking the caller. On Linux the folder is cloned
+     * with {@code cp --reflink=always} first, which shares the data blocks on
+     * copy-on-write file systems (btrfs, xfs, zfs). Otherwise the directories are
+     * created in one pass and the files are copied in parallel on the executor.
+     */
+    public static CompletableFuture<Void> copyAsync(File src, File target, Executor executor) {
+        if (!src.exists()) return CompletableFuture.failedFuture(new NullPointerException());
+        return CompletableFuture.supplyAsync(() -> reflink(src, target), executor).thenCompose(cloned -> {
+            if (cloned) return CompletableFuture.completedFuture(null);
+
+            final CopyDirVisitor visitor = new CopyDirVisitor(src.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, executor);
+            try {
+                Files.walkFileTree(src.toPath(), visitor);
+            } catch (IOException exception) {
+                return CompletableFuture.failedFuture(exception);
+            }
+            return visitor.getCopies();
+        });
+    }
+
+    private static boolean reflink(File src, File target) {
+        if (!System.getProperty("os.name").toLowerCase().contains("linux") || target.exists()) return false;
+        try {
+            final Process process = new ProcessBuilder("cp", "-R", "--reflink=always", src.getAbsolutePath(), target.getAbsolutePath())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (process.waitFor() == 0) {
+                Files.deleteIfExists(target.toPath().resolve("uid.dat"));
+                return true;
+            }
+        } catch (IOException exception) {
+            // no cp available, copy the files ourselves
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        deleteFolder(target);
+        return false;
+    }
 }
@@ -18,6 +18,7 @@ import at.srsyntax.farmingworld.handler.cooldown.CooldownImpl;
 import at.srsyntax.farmingworld.handler.countdown.CountdownImpl;
 import at.srsyntax.farmingworld.handler.economy.EconomyImpl;
 import at.srsyntax.farmingworld.ticket.TeleportTicket;
+import at.srsyntax.farmingworld.util.MaterialClassifier;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.bukkit.Material;
@@ -113,21 +114,12 @@ public class APIImpl implements API {
 
     @Override
     public @Nullable FarmWorld getFarmWorld(String name) {
-        for (FarmWorld farmWorld : plugin.getPluginConfig().getFarmWorlds()) {
-            if (farmWorld.getName().equalsIgnoreCase(name))
-                return farmWorld;
-        }
-        return null;
+        return plugin.getFarmWorldNames().get(name);
     }
 
     @Override
     public @Nullable FarmWorld getFarmWorld(World world) {
-        for (FarmWorldImpl farmWorld : plugin.getPluginConfig().getFarmWorlds()) {
-            if (farmWorld.isEnabled() && farmWorld.getWorld().equals(world)) return farmWorld;
-            else if (farmWorld.hasNext() && farmWorld.getNextWorld().equals(world)) return farmWorld;
-            else if (farmWorld.getOldWorldName() != null && farmWorld.getOldWorldName().equalsIgnoreCase(world.getName())) return farmWorld;
-        }
-        return null;
+        return plugin.getWorldIndex().get(world);
     }
 
     @Override
@@ -143,17 +135,17 @@ public class APIImpl implements API {
 
     @Override
     public @NotNull LocationRandomizer createLocationRandomizer(List<Material> blacklist, World world, Border border) {
-        return new LocationRandomizerImpl(blacklist, world, border);
+        return new LocationRandomizerImpl(plugin, new MaterialClassifier(blacklist), blacklist, world, border, null);
     }
 
     @Override
     public @NotNull LocationRandomizer createLocationRandomizer(List<Material> blacklist, FarmWorld farmWorld) {
-        return new LocationRandomizerImpl(blacklist, farmWorld);
+        return new LocationRandomizerImpl(plugin, new MaterialClassifier(blacklist), blacklist, farmWorld);
     }
 
     @Override
     public @NotNull LocationRandomizer createLocationRandomizer(FarmWorld farmWorld) {
-        return new LocationRandomizerImpl(plugin.getPluginConfig().getBlacklist(), farmWorld);
+        return new LocationRandomizerImpl(plugin, plugin.getMaterialClassifier(), plugin.getPluginConfig().getBlacklist(), farmWorld);
     }
 
     @Override
@@ -3,7 +3,6 @@ package at.srsyntax.farmingworld;
 import at.srsyntax.farmingworld.api.API;
 import at.srsyntax.farmingworld.api.farmworld.FarmWorld;
 import at.srsyntax.farmingworld.api.template.TemplateRegistry;
-import at.srsyntax.farmingworld.api.util.file.FileUtil;
 import at.srsyntax.farmingworld.command.BuyTicketCommand;
 import at.srsyntax.farmingworld.command.RTPCommand;
 import at.srsyntax.farmingworld.command.SpawnCommand;
@@ -15,10 +14,13 @@ import at.srsyntax.farmingworld.config.MessageConfig;
 import at.srsyntax.farmingworld.config.PluginConfig;
 import at.srsyntax.farmingworld.database.Database;
 import at.srsyntax.farmingworld.database.DatabaseException;
-import at.srsyntax.farmingworld.database.sqlite.SQLiteDatabase;
+import at.srsyntax.farmingworld.database.DatabaseProvider;
 import at.srsyntax.farmingworld.farmworld.*;
 import at.srsyntax.farmingworld.farmworld.display.DisplayRegistry;
 import at.srsyntax.farmingworld.farmworld.scheduler.FarmWorldScheduler;
+import at.srsyntax.farmingworld.farmworld.scheduler.LocationPoolRefiller;
+import at.srsyntax.farmingworld.farmworld.scheduler.NextWorldPipeline;
+import at.srsyntax.farmingworld.farmworld.scheduler.ResetOrchestrator;
 import at.srsyntax.farmingworld.farmworld.sign.SignListeners;
 import at.srsyntax.farmingworld.farmworld.sign.SignRegistryImpl;
 import at.srsyntax.farmingworld.handler.countdown.CountdownListener;
@@ -39,7 +41,10 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /*
  * MIT License
@@ -72,6 +77,7 @@ public class FarmingWorldPlugin extends JavaPlugin {
     @Getter private Database database;
     @Getter private PluginConfig pluginConfig;
     @Getter private MessageConfig messageConfig;
+    @Getter private MaterialClassifier materialClassifier;
 
     @Getter private FarmWorldCountdownRegistry countdownRegistry;
     @Getter private Economy economy;
@@ -80,6 +86,14 @@ public class FarmingWorldPlugin extends JavaPlugin {
     @Getter private DisplayRegistry displayRegistry;
     @Getter private SafeTeleportRegistryImpl safeTeleportRegistry;
     @Getter private TemplateRegistry templateRegistry;
+    @Getter private WorldIndex worldIndex;
+    @Getter private WorldTrash worldTrash;
+    @Getter private ExecutorService ioExecutor;
+    @Getter private TickMonitor tickMonitor;
+    @Getter private PregenManager pregenManager;
+    @Getter private FarmWorldScheduler farmWorldScheduler;
+    @Getter private ResetOrchestrator resetOrchestrator;
+    @Getter private volatile FarmWorldNames farmWorldNames;
 
     @Override
     public void onLoad() {
@@ -94,7 +108,13 @@ public class FarmingWorldPlugin extends JavaPlugin {
 
             loadConfig();
 
-            this.database = new SQLiteDatabase(this);
+            this.worldTrash = new WorldTrash(getLogger(), getServer().getWorldContainer());
+            worldTrash.resume();
+            this.ioExecutor = createIoExecutor();
+            this.tickMonitor = new TickMonitor();
+            this.pregenManager = new PregenManager(this);
+
+            this.database = DatabaseProvider.load(this, pluginConfig.getDatabase());
             this.database.connect();
 
             this.economy = setupEconomy();
@@ -108,11 +128,15 @@ public class FarmingWorldPlugin extends JavaPlugin {
             this.displayRegistry = new DisplayRegistry(this, pluginConfig.getResetDisplay());
             if (pluginConfig.getSafeTeleport().isEnabled())
                 this.safeTeleportRegistry = new SafeTeleportRegistryImpl(this);
+            this.worldIndex = new WorldIndex();
             registerListeners(
                     new CountdownListener(countdownRegistry),
                     new PlayerEventListeners(),
                     new SignListeners(signRegistry, messageConfig.getCommand()),
-                    new JoinListener(this)
+                    new JoinListener(this),
+                    new SurfaceIndexListener(this),
+                    new WorldUnloadListener(this),
+                    new WorldIndexListener(worldIndex)
             );
             if (pluginConfig.getTicket().isEnabled()) {
                 if (api.vaultSupported()) {
@@ -138,16 +162,33 @@ public class FarmingWorldPlugin extends JavaPlugin {
         messageConfig = Config.load(this, new MessageConfig(), MessageConfig.class);
         pluginConfig = Config.load(this, new PluginConfig(this, getDefaultFallbackLocation()), PluginConfig.class);
         new ConfigUpdater(this).update();
+        materialClassifier = new MaterialClassifier(pluginConfig.getBlacklist());
+        refreshFarmWorldNames();
+    }
+
+    /**
+     * Builds a new name snapshot after the farm world list changed.
+     */
+    public void refreshFarmWorldNames() {
+        final long version = farmWorldNames == null ? 1L : farmWorldNames.getVersion() + 1L;
+        farmWorldNames = FarmWorldNames.of(version, pluginConfig.getFarmWorlds());
     }
 
     public void loadFarmWorlds() {
+        worldIndex.clear();
+        farmWorldScheduler = new FarmWorldScheduler(this);
+        resetOrchestrator = new ResetOrchestrator(this);
         pluginConfig.getFarmWorlds().forEach(farmWorld -> new FarmWorldLoader(this, farmWorld).load());
         checkFarmWorlds();
-        getServer().getScheduler().scheduleSyncRepeatingTask(this, new FarmWorldScheduler(api, this), 1200L, 1200L);
+        getServer().getScheduler().scheduleSyncRepeatingTask(this, new LocationPoolRefiller(this), 1L, 1L);
+        getServer().getScheduler().scheduleSyncRepeatingTask(this, new NextWorldPipeline(this), 20L, 1L);
+        getServer().getScheduler().scheduleSyncRepeatingTask(this, tickMonitor, 1L, 1L);
+        getServer().getScheduler().scheduleSyncRepeatingTask(this, pregenManager, 1L, 1L);
+        getServer().getScheduler().scheduleSyncRepeatingTask(this, resetOrchestrator, 20L, 20L);
 
         if (pluginConfig.getChunkDeletePeriod() <= 0) return;
         final long period = TimeUnit.HOURS.toSeconds(pluginConfig.getChunkDeletePeriod()) * 20;
-        final var chunkDeleterRunnable = new ChunkDeleterRunnable(api, pluginConfig.getChunkDeletePeriod());
+        final var chunkDeleterRunnable = new ChunkDeleterRunnable(this);
         getServer().getScheduler().scheduleSyncRepeatingTask(this, chunkDeleterRunnable, 30L, period);
     }
 
@@ -167,17 +208,20 @@ public class FarmingWorldPlugin extends JavaPlugin {
 
     private void checkLostWorlds(String name, FarmWorld farmWorld) {
         for (File file : getServer().getWorldContainer().listFiles()) {
-            if (!file.isDirectory()) continue;
+            final boolean surfaceIndex = file.getName().endsWith(SurfaceIndex.FILE_EXTENSION);
+            if (!file.isDirectory() && !surfaceIndex) continue;
             if (!file.getName().startsWith(name)) continue;
 
             if (farmWorld != null) {
                 final FarmWorldData data = ((FarmWorldImpl) farmWorld).getData();
-                if (data.getCurrentWorldName() != null && file.getName().equalsIgnoreCase(data.getCurrentWorldName())) continue;
-                if (data.getNextWorldName() != null && file.getName().equalsIgnoreCase(data.getNextWorldName())) continue;
+                final String worldName = surfaceIndex ? file.getName().substring(0, file.getName().length() - SurfaceIndex.FILE_EXTENSION.length()) : file.getName();
+                if (data.getCurrentWorldName() != null && worldName.equalsIgnoreCase(data.getCurrentWorldName())) continue;
+                if (data.getNextWorldName() != null && worldName.equalsIgnoreCase(data.getNextWorldName())) continue;
             }
 
             getLogger().info("Delete " + file.getName() + " (F)");
-            FileUtil.deleteFolder(file);
+            if (surfaceIndex) file.delete();
+            else worldTrash.delete(file);
         }
     }
 
@@ -195,6 +239,8 @@ public class FarmingWorldPlugin extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        if (worldTrash != null) worldTrash.shutdown();
+        if (ioExecutor != null) ioExecutor.shutdown();
         try {
             this.database.disconnect();
         } catch (DatabaseException e) {
@@ -203,6 +249,16 @@ public class FarmingWorldPlugin extends JavaPlugin {
         }
     }
 
+    private ExecutorService createIoExecutor() {
+        final AtomicInteger threads = new AtomicInteger();
+        final int size = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        return Executors.newFixedThreadPool(size, runnable -> {
+            final Thread thread = new Thread(runnable, "FarmingWorld-IO-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private Location getDefaultFallbackLocation() throws IOException {
         final Properties properties = new Properties();
         properties.load(new FileReader("server.properties"));
@@ -1,7 +1,7 @@
 package at.srsyntax.farmingworld.command;
 
+import at.srsyntax.farmingworld.APIImpl;
 import at.srsyntax.farmingworld.FarmingWorldPlugin;
-import at.srsyntax.farmingworld.api.farmworld.FarmWorld;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
@@ -45,13 +45,6 @@ public interface TabCompleterFilter {
     }
 
     default List<String> filterFarmWorlds(String arg) {
-        final List<String> result = new ArrayList<>();
-
-        for (FarmWorld farmWorld : FarmingWorldPlugin.getApi().getFarmWorlds()) {
-            if (farmWorld.getName().toLowerCase().startsWith(arg.toLowerCase()))
-                result.add(farmWorld.getName());
-        }
-
-        return result;
+        return ((APIImpl) FarmingWorldPlugin.getApi()).getPlugin().getFarmWorldNames().complete(arg);
     }
 }
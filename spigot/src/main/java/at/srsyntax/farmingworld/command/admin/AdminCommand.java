@@ -55,7 +55,7 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         this.commandMap = createCommandMap(
                 new ListSubCommand("list", messages, api),
                 new SetSpawnSubCommand("setspawn", messages, api),
-                new InfoSubCommand("info <farmworld> [signs/players]", messages, api),
+                new InfoSubCommand("info <farmworld> [signs/players/search]", messages, api),
                 new ResetSubCommand("reset <farmworld>", messages, api, this),
                 new DeleteSubCommand("delete <farmworld>", messages, api, this),
                 new EnableSubCommand("enable <farmworld>", messages, api, this),
@@ -63,7 +63,9 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
                 new ReloadSubCommand("reload", messages, api, this),
                 new ConfirmSubCommand("confirm", messages, api, this),
                 new SetWorldSpawnSubCommand("setworldspawn", messages, api, pluginMessages.getCommand()),
-                new DelWorldSpawnSubCommand("delworldspawn <farmworld>", messages, api)
+                new DelWorldSpawnSubCommand("delworldspawn <farmworld>", messages, api),
+                new PregenSubCommand("pregen <farmworld> [start/stop/status] [radius]", messages, api),
+                new DbStatsSubCommand("dbstats", messages, api)
         );
         this.confirmCache = CacheBuilder.newBuilder()
                 .expireAfterWrite(10L, TimeUnit.SECONDS)
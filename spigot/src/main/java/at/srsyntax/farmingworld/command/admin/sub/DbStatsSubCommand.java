@@ -0,0 +1,65 @@
+package at.srsyntax.farmingworld.command.admin.sub;
+
+import at.srsyntax.farmingworld.APIImpl;
+import at.srsyntax.farmingworld.api.message.Message;
+import at.srsyntax.farmingworld.command.admin.SubCommand;
+import at.srsyntax.farmingworld.config.MessageConfig;
+import at.srsyntax.farmingworld.database.StatementStats;
+import org.bukkit.command.CommandSender;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+public class DbStatsSubCommand extends SubCommand {
+
+    private static final int LIMIT = 10;
+
+    public DbStatsSubCommand(String usage, MessageConfig.AdminCommandMessages messages, APIImpl api) {
+        super(usage, messages, api);
+    }
+
+    @Override
+    public void execute(CommandSender sender, String[] args) throws Exception {
+        final var database = api.getPlugin().getDatabase();
+        final List<StatementStats> stats = database.getStatementStats();
+
+        new Message(messages.getDbStatsHeader())
+                .replace("%{pending}", database.getPendingWrites())
+                .replace("%{statements}", stats.size())
+                .send(sender);
+
+        for (StatementStats entry : stats.subList(0, Math.min(LIMIT, stats.size()))) {
+            new Message(messages.getDbStatsEntry())
+                    .replace("%{count}", entry.getCount())
+                    .replace("%{average}", String.format("%.2f", entry.getAverageMillis()))
+                    .replace("%{max}", String.format("%.2f", entry.getMaxMillis()))
+                    .replace("%{histogram}", Arrays.stream(entry.getBuckets()).mapToObj(String::valueOf).collect(Collectors.joining("/")))
+                    .replace("%{sql}", entry.getSql())
+                    .send(sender);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import at.srsyntax.farmingworld.command.TabCompleterFilter;
 import at.srsyntax.farmingworld.command.admin.FarmWorldSubCommand;
 import at.srsyntax.farmingworld.config.MessageConfig;
 import at.srsyntax.farmingworld.farmworld.FarmWorldImpl;
+import at.srsyntax.farmingworld.farmworld.LocationSearchStatistics;
 import at.srsyntax.farmingworld.farmworld.sign.SignCacheImpl;
 import org.bukkit.command.CommandSender;
 
@@ -53,6 +54,9 @@ public class InfoSubCommand extends FarmWorldSubCommand implements TabCompleterF
             } else if (args[2].equalsIgnoreCase("players")) {
                 sendPlayers(sender, farmWorld);
                 return;
+            } else if (args[2].equalsIgnoreCase("search")) {
+                sendSearch(sender, (FarmWorldImpl) farmWorld);
+                return;
             }
         }
 
@@ -62,7 +66,7 @@ public class InfoSubCommand extends FarmWorldSubCommand implements TabCompleterF
     @Override
     public List<String> tabCompleter(CommandSender sender, String[] args) {
         if (args.length == 2) return filterFarmWorlds(args[1]);
-        if (args.length == 3) return Arrays.asList("signs", "players");
+        if (args.length == 3) return Arrays.asList("signs", "players", "search");
         return Collections.emptyList();
     }
 
@@ -87,6 +91,32 @@ public class InfoSubCommand extends FarmWorldSubCommand implements TabCompleterF
                 .send(sender);
     }
 
+    private void sendSearch(CommandSender sender, FarmWorldImpl farmWorld) {
+        final var statistics = farmWorld.getSearchStatistics();
+        final double demand = farmWorld.getPoolSizeController().getDemandPerMinute();
+        final StringJoiner rejections = new StringJoiner(", "), fallbacks = new StringJoiner(", ");
+        for (LocationSearchStatistics.Rejection rejection : LocationSearchStatistics.Rejection.values())
+            rejections.add(rejection.name().toLowerCase() + "=" + statistics.getRejections(rejection));
+        for (LocationSearchStatistics.Fallback fallback : LocationSearchStatistics.Fallback.values())
+            fallbacks.add(fallback.name().toLowerCase() + "=" + statistics.getFallbacks(fallback));
+
+        new Message(arrayToString(messages.getInfoSearch(), false))
+                .replace("%{name}", farmWorld.getName())
+                .replace("%{searches}", statistics.getSearches())
+                .replace("%{attempts}", statistics.getAttempts())
+                .replace("%{average}", String.format("%.2f", statistics.getAverageMillis()))
+                .replace("%{max}", String.format("%.2f", statistics.getMaxMillis()))
+                .replace("%{over-budget}", statistics.getOverBudget())
+                .replace("%{rejections}", rejections.toString())
+                .replace("%{fallbacks}", fallbacks.toString())
+                .replace("%{demand}", demand < 0D ? "-" : String.format("%.2f", demand))
+                .replace("%{cached}", farmWorld.getCachedLocations())
+                .replace("%{pool-target}", farmWorld.getPoolTarget())
+                .replace("%{pool-memory}", farmWorld.getLocationPool().getMemoryUsage())
+                .replace("%{tickets}", farmWorld.getChunkLeases().getTickets())
+                .send(sender);
+    }
+
     private void sendSigns(CommandSender sender, FarmWorld farmWorld) {
         final var list = farmWorld.getSigns();
         final String message;
@@ -0,0 +1,95 @@
+package at.srsyntax.farmingworld.command.admin.sub;
+
+import at.srsyntax.farmingworld.APIImpl;
+import at.srsyntax.farmingworld.api.message.Message;
+import at.srsyntax.farmingworld.command.TabCompleterFilter;
+import at.srsyntax.farmingworld.command.admin.FarmWorldSubCommand;
+import at.srsyntax.farmingworld.config.MessageConfig;
+import at.srsyntax.farmingworld.farmworld.ChunkPregenerator;
+import at.srsyntax.farmingworld.farmworld.FarmWorldImpl;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+public class PregenSubCommand extends FarmWorldSubCommand implements TabCompleterFilter {
+
+    public PregenSubCommand(String usage, MessageConfig.AdminCommandMessages messages, APIImpl api) {
+        super(usage, messages, api);
+    }
+
+    @Override
+    public void execute(CommandSender sender, String[] args) throws Exception {
+        final var farmWorld = (FarmWorldImpl) getFarmWorld(args, 1);
+        // the next world is the one players enter after the reset
+        final World world = farmWorld.hasNext() && farmWorld.getNextWorld() != null ? farmWorld.getNextWorld() : farmWorld.getWorld();
+        if (world == null) throw new Exception(api.getPlugin().getMessageConfig().getCommand().getFarmWorldNotFound());
+
+        final var pregenManager = api.getPlugin().getPregenManager();
+        final String action = args.length > 2 ? args[2].toLowerCase() : "status";
+        switch (action) {
+            case "start" -> {
+                final int radius = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+                final ChunkPregenerator task = pregenManager.start(world, farmWorld.getBorder(), radius);
+                new Message(messages.getPregenStarted())
+                        .replace("%{world}", world.getName())
+                        .replace("%{total}", task.getTotal())
+                        .send(sender);
+            }
+            case "stop" -> new Message(pregenManager.stop(world) ? messages.getPregenStopped() : messages.getPregenNotRunning())
+                    .replace("%{world}", world.getName())
+                    .send(sender);
+            default -> sendStatus(sender, world, pregenManager.get(world));
+        }
+    }
+
+    private void sendStatus(CommandSender sender, World world, ChunkPregenerator task) {
+        if (task == null) {
+            new Message(messages.getPregenNotRunning()).replace("%{world}", world.getName()).send(sender);
+            return;
+        }
+
+        new Message(messages.getPregenStatus())
+                .replace("%{world}", world.getName())
+                .replace("%{done}", task.getIndex())
+                .replace("%{total}", task.getTotal())
+                .replace("%{percent}", String.format("%.1f", task.getProgress() * 100D))
+                .replace("%{generated}", task.getGenerated())
+                .replace("%{rate}", String.format("%.1f", task.getRate()))
+                .replace("%{per-tick}", task.getChunksPerTick())
+                .replace("%{tps}", String.format("%.1f", api.getPlugin().getTickMonitor().getTps()))
+                .replace("%{paused}", task.isPaused() ? " &c(paused)" : "")
+                .send(sender);
+    }
+
+    @Override
+    public List<String> tabCompleter(CommandSender sender, String[] args) {
+        if (args.length == 2) return filterFarmWorlds(args[1]);
+        if (args.length == 3) return List.of("start", "stop", "status");
+        return Collections.emptyList();
+    }
+}
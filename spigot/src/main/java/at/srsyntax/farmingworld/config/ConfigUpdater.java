@@ -42,6 +42,8 @@ public class ConfigUpdater {
     }
 
     public void update() throws IOException {
+        updatePluginConfig();
+        updateMessageConfig();
         if (pluginConfig.getVersion().equalsIgnoreCase(version)) return;
         pluginConfig.setVersion(version);
 
@@ -50,4 +52,79 @@ public class ConfigUpdater {
         adminConfig.setDelWorldSpawn("&cWorld spawn has been deleted.");
         messageConfig.save(plugin);
     }
+
+    private void updatePluginConfig() throws IOException {
+        boolean changed = false;
+        if (pluginConfig.getLocationPool() == null) {
+            pluginConfig.setLocationPool(new PluginConfig.LocationPoolConfig());
+            changed = true;
+        }
+        if (pluginConfig.getAdaptivePool() == null) {
+            pluginConfig.setAdaptivePool(new PluginConfig.AdaptivePoolConfig());
+            changed = true;
+        }
+        if (pluginConfig.getRandomizer() == null) {
+            pluginConfig.setRandomizer(new PluginConfig.RandomizerConfig());
+            changed = true;
+        }
+        if (pluginConfig.getSurfaceIndex() == null) {
+            pluginConfig.setSurfaceIndex(new PluginConfig.SurfaceIndexConfig());
+            changed = true;
+        }
+        if (pluginConfig.getDispersion() == null) {
+            pluginConfig.setDispersion(new PluginConfig.DispersionConfig());
+            changed = true;
+        }
+        if (pluginConfig.getMassTeleport() == null) {
+            pluginConfig.setMassTeleport(new PluginConfig.MassTeleportConfig());
+            changed = true;
+        }
+        if (pluginConfig.getChunkLease() == null) {
+            pluginConfig.setChunkLease(new PluginConfig.ChunkLeaseConfig());
+            changed = true;
+        }
+        if (pluginConfig.getNextWorld() == null) {
+            pluginConfig.setNextWorld(new PluginConfig.NextWorldConfig());
+            changed = true;
+        }
+        if (pluginConfig.getPregen() == null) {
+            pluginConfig.setPregen(new PluginConfig.PregenConfig());
+            changed = true;
+        }
+        if (pluginConfig.getReset() == null) {
+            pluginConfig.setReset(new PluginConfig.ResetConfig());
+            changed = true;
+        }
+        if (pluginConfig.getDatabase() == null) {
+            pluginConfig.setDatabase(new PluginConfig.DatabaseConfig());
+            changed = true;
+        }
+        if (pluginConfig.getDatabase().getServerId() == null || pluginConfig.getDatabase().getServerId().isBlank()) {
+            pluginConfig.setDatabase(pluginConfig.getDatabase().withServerId(PluginConfig.DatabaseConfig.randomServerId()));
+            changed = true;
+        }
+        if (changed) pluginConfig.save(plugin);
+    }
+
+    private void updateMessageConfig() throws IOException {
+        final var adminConfig = messageConfig.getAdminCommand();
+        boolean changed = false;
+        if (adminConfig.getInfoSearch() == null) {
+            adminConfig.setInfoSearch(MessageConfig.AdminCommandMessages.DEFAULT_INFO_SEARCH);
+            changed = true;
+        }
+        if (adminConfig.getPregenStatus() == null) {
+            adminConfig.setPregenStatus(MessageConfig.AdminCommandMessages.DEFAULT_PREGEN_STATUS);
+            adminConfig.setPregenStarted(MessageConfig.AdminCommandMessages.DEFAULT_PREGEN_STARTED);
+            adminConfig.setPregenStopped(MessageConfig.AdminCommandMessages.DEFAULT_PREGEN_STOPPED);
+            adminConfig.setPregenNotRunning(MessageConfig.AdminCommandMessages.DEFAULT_PREGEN_NOT_RUNNING);
+            changed = true;
+        }
+        if (adminConfig.getDbStatsHeader() == null) {
+            adminConfig.setDbStatsHeader(MessageConfig.AdminCommandMessages.DEFAULT_DB_STATS_HEADER);
+            adminConfig.setDbStatsEntry(MessageConfig.AdminCommandMessages.DEFAULT_DB_STATS_ENTRY);
+            changed = true;
+        }
+        if (changed) messageConfig.save(plugin);
+    }
 }
@@ -123,7 +123,14 @@ public class MessageConfig extends Config {
                         "&ePlayers on &e&l%{name} &7(%{size})&8: %{list}",
                         "&eSigns for &e&l%{name} &7(%{size})&8: %{list}",
                         "&aWorld spawn was set.",
-                        "&cWorld spawn has been deleted."
+                        "&cWorld spawn has been deleted.",
+                        MessageConfig.AdminCommandMessages.DEFAULT_INFO_SEARCH,
+                        MessageConfig.AdminCommandMessages.DEFAULT_PREGEN_STATUS,
+                        MessageConfig.AdminCommandMessages.DEFAULT_PREGEN_STARTED,
+                        MessageConfig.AdminCommandMessages.DEFAULT_PREGEN_STOPPED,
+                        MessageConfig.AdminCommandMessages.DEFAULT_PREGEN_NOT_RUNNING,
+                        MessageConfig.AdminCommandMessages.DEFAULT_DB_STATS_HEADER,
+                        MessageConfig.AdminCommandMessages.DEFAULT_DB_STATS_ENTRY
                 ),
                 new TimeMessages(
                         "HH:mm:ss dd.MM.yyyy",
@@ -174,6 +181,22 @@ public class MessageConfig extends Config {
     @AllArgsConstructor
     @Getter @Setter
     public static class AdminCommandMessages {
+        public static final String[] DEFAULT_INFO_SEARCH = {
+                "&6&l%{name} &r&elocation search&8:",
+                "&eSearches&8:&7%{searches} &8(&7%{attempts} attempts&8)",
+                "&eTime&8:&7avg %{average}ms, max %{max}ms, %{over-budget} over budget",
+                "&eRejections&8:&7%{rejections}",
+                "&eFallbacks&8:&7%{fallbacks}",
+                "&eDemand&8:&7%{demand} teleports per minute",
+                "&eCached&8:&7%{cached}&8/&7%{pool-target} &8(&7%{pool-memory} bytes, %{tickets} chunk tickets&8)"
+        };
+        public static final String DEFAULT_PREGEN_STATUS = "&e%{world}&8: &7%{done}/%{total} chunks &8(&7%{percent}%&8)&7, %{generated} generated, %{rate} chunks/s, %{per-tick} per tick, %{tps} TPS%{paused}";
+        public static final String DEFAULT_PREGEN_STARTED = "&aPre-generation of &e%{world} &astarted &8(&7%{total} chunks&8)&a.";
+        public static final String DEFAULT_PREGEN_STOPPED = "&cPre-generation of &e%{world} &chas been stopped.";
+        public static final String DEFAULT_PREGEN_NOT_RUNNING = "&cNo pre-generation is running for &e%{world}&c.";
+        public static final String DEFAULT_DB_STATS_HEADER = "&6&lDatabase&8: &7%{pending} pending changes, %{statements} statements &8(&7<0.1/<1/<10/<100/>100ms&8)";
+        public static final String DEFAULT_DB_STATS_ENTRY = "&e%{count}x &7avg %{average}ms, max %{max}ms &8[&7%{histogram}&8] &f%{sql}";
+
         private final String isNotPlayer, noPermission, usage;
         private final String setspawn, setspawnError;
         private final String noFarmWorlds, farmWorldReset;
@@ -185,6 +208,13 @@ public class MessageConfig extends Config {
         private final String infoPlayers, infoSigns;
         private String setWorldSpawn = "&aWorld spawn was set.";
         private String delWorldSpawn = "&cWorld spawn has been deleted.";
+        private String[] infoSearch = DEFAULT_INFO_SEARCH;
+        private String pregenStatus = DEFAULT_PREGEN_STATUS;
+        private String pregenStarted = DEFAULT_PREGEN_STARTED;
+        private String pregenStopped = DEFAULT_PREGEN_STOPPED;
+        private String pregenNotRunning = DEFAULT_PREGEN_NOT_RUNNING;
+        private String dbStatsHeader = DEFAULT_DB_STATS_HEADER;
+        private String dbStatsEntry = DEFAULT_DB_STATS_ENTRY;
     }
 
     @AllArgsConstructor
@@ -18,6 +18,7 @@ import org.bukkit.plugin.Plugin;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 
 /*
  * MIT License
@@ -55,6 +56,17 @@ public class PluginConfig extends Config {
     private final List<Material> blacklist;
     private final SignConfig sign;
     private final int locationCache;
+    private LocationPoolConfig locationPool;
+    private AdaptivePoolConfig adaptivePool;
+    private RandomizerConfig randomizer;
+    private SurfaceIndexConfig surfaceIndex;
+    private DispersionConfig dispersion;
+    private MassTeleportConfig massTeleport;
+    private ChunkLeaseConfig chunkLease;
+    private NextWorldConfig nextWorld;
+    private PregenConfig pregen;
+    private ResetConfig reset;
+    private DatabaseConfig database;
     private final boolean spawnCommandEnabled;
     private final SpawnType spawnType;
     private final ResetDisplayConfig resetDisplay;
@@ -64,7 +76,7 @@ public class PluginConfig extends Config {
     private final TicketConfig ticket;
     private boolean localRTPfee = true;
 
-    public PluginConfig(String version, double refund, CountdownConfig countdown, String defaultFarmWorld, List<FarmWorldImpl> farmWorlds, List<Material> blacklist, SignConfig sign, int locationCache, boolean spawnCommandEnabled, SpawnType spawnType, ResetDisplayConfig resetDisplay, LocationCache spawn, SafeTeleportConfig safeTeleport, int chunkDeletePeriod, TicketConfig ticket, boolean localRTPfee) {
+    public PluginConfig(String version, double refund, CountdownConfig countdown, String defaultFarmWorld, List<FarmWorldImpl> farmWorlds, List<Material> blacklist, SignConfig sign, int locationCache, LocationPoolConfig locationPool, AdaptivePoolConfig adaptivePool, RandomizerConfig randomizer, SurfaceIndexConfig surfaceIndex, DispersionConfig dispersion, MassTeleportConfig massTeleport, ChunkLeaseConfig chunkLease, NextWorldConfig nextWorld, PregenConfig pregen, ResetConfig reset, DatabaseConfig database, boolean spawnCommandEnabled, SpawnType spawnType, ResetDisplayConfig resetDisplay, LocationCache spawn, SafeTeleportConfig safeTeleport, int chunkDeletePeriod, TicketConfig ticket, boolean localRTPfee) {
         this.version = version;
         this.refund = refund;
         this.countdown = countdown;
@@ -73,6 +85,17 @@ public class PluginConfig extends Config {
         this.blacklist = blacklist;
         this.sign = sign;
         this.locationCache = locationCache;
+        this.locationPool = locationPool;
+        this.adaptivePool = adaptivePool;
+        this.randomizer = randomizer;
+        this.surfaceIndex = surfaceIndex;
+        this.dispersion = dispersion;
+        this.massTeleport = massTeleport;
+        this.chunkLease = chunkLease;
+        this.nextWorld = nextWorld;
+        this.pregen = pregen;
+        this.reset = reset;
+        this.database = database;
         this.spawnCommandEnabled = spawnCommandEnabled;
         this.spawnType = spawnType;
         this.resetDisplay = resetDisplay;
@@ -121,6 +144,17 @@ public class PluginConfig extends Config {
                         }
                 ),
                 3,
+                new LocationPoolConfig(),
+                new AdaptivePoolConfig(),
+                new RandomizerConfig(),
+                new SurfaceIndexConfig(),
+                new DispersionConfig(),
+                new MassTeleportConfig(),
+                new ChunkLeaseConfig(),
+                new NextWorldConfig(),
+                new PregenConfig(),
+                new ResetConfig(),
+                new DatabaseConfig(),
                 true,
                 SpawnType.FIRST,
                 new ResetDisplayConfig(
@@ -149,6 +183,141 @@ public class PluginConfig extends Config {
         private final ChatMessageType messageType;
     }
 
+    @AllArgsConstructor
+    @Getter
+    public static class LocationPoolConfig {
+        private final int lowWatermark, maxSearches, tickBudgetMillis;
+
+        public LocationPoolConfig() {
+            this(1, 2, 2);
+        }
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class AdaptivePoolConfig {
+        private final boolean enabled;
+        private final int minSize, sampleSeconds, bufferSeconds;
+        private final double alpha;
+
+        public AdaptivePoolConfig() {
+            this(true, 1, 30, 120, .3D);
+        }
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class RandomizerConfig {
+        private final int maxAttempts, maxSearchMillis, spiralRadius;
+
+        public RandomizerConfig() {
+            this(256, 50, 32);
+        }
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class SurfaceIndexConfig {
+        private final boolean enabled;
+        private final int stride;
+
+        public SurfaceIndexConfig() {
+            this(true, 4);
+        }
+
+        public int getStride() {
+            return Math.max(1, Math.min(stride, 16));
+        }
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class DispersionConfig {
+        private final boolean enabled;
+        private final int minDistance, regionCap, memory;
+
+        public DispersionConfig() {
+            this(true, 64, 4, 256);
+        }
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class MassTeleportConfig {
+        private final int playersPerTick, timeoutSeconds;
+
+        public MassTeleportConfig() {
+            this(4, 30);
+        }
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class ChunkLeaseConfig {
+        private final boolean enabled;
+        private final int warm, ttlSeconds;
+
+        public ChunkLeaseConfig() {
+            this(true, 4, 300);
+        }
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class NextWorldConfig {
+        private final boolean enabled;
+        private final int leadMinutes, pregenRadius;
+
+        public NextWorldConfig() {
+            this(true, 10, 16);
+        }
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class PregenConfig {
+        private final int maxChunksPerTick, targetTickMillis;
+        private final boolean pauseWithPlayers;
+
+        public PregenConfig() {
+            this(16, 52, false);
+        }
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class ResetConfig {
+        private final int maxConcurrent, minGapSeconds, startupDelaySeconds;
+
+        public ResetConfig() {
+            this(1, 30, 30);
+        }
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class DatabaseConfig {
+        // sqlite or jdbc, the url decides between MySQL, MariaDB, PostgreSQL and H2
+        private final String type;
+        private final String url, username, password;
+        // rows of a shared database belong to the server with this id, every server needs its own
+        private final String serverId;
+        // the writer keeps one connection of the pool, reads borrow the others
+        private final int poolSize, connectionTimeoutSeconds;
+
+        public DatabaseConfig() {
+            this("sqlite", "jdbc:mysql://localhost:3306/farmingworld", "farmingworld", "", randomServerId(), 4, 10);
+        }
+
+        public DatabaseConfig withServerId(String serverId) {
+            return new DatabaseConfig(type, url, username, password, serverId, poolSize, connectionTimeoutSeconds);
+        }
+
+        public static String randomServerId() {
+            return UUID.randomUUID().toString().substring(0, 8);
+        }
+    }
+
     @AllArgsConstructor
     @Getter
     public static class SignConfig {
@@ -4,6 +4,8 @@ import at.srsyntax.farmingworld.database.repository.FarmWorldRepository;
 import at.srsyntax.farmingworld.database.repository.LocationRepository;
 import at.srsyntax.farmingworld.database.repository.SignRepository;
 
+import java.util.List;
+
 /*
  * MIT License
  *
@@ -34,4 +36,7 @@ public interface Database {
     FarmWorldRepository getFarmWorldRepository();
     LocationRepository getLocationRepository();
     SignRepository getSignRepository();
+
+    int getPendingWrites();
+    List<StatementStats> getStatementStats() throws DatabaseException;
 }
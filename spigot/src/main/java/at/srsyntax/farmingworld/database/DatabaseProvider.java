@@ -0,0 +1,60 @@
+package at.srsyntax.farmingworld.database;
+
+import at.srsyntax.farmingworld.config.PluginConfig;
+import at.srsyntax.farmingworld.database.jdbc.PooledJdbcDatabase;
+import at.srsyntax.farmingworld.database.sqlite.SQLiteDatabase;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ServiceLoader;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Creates the {@link Database} for the type set in the config. Besides the built in
+ * types further backends can be registered as a {@link ServiceLoader} service.
+ */
+public interface DatabaseProvider {
+
+    String getType();
+    Database create(Plugin plugin, PluginConfig.DatabaseConfig config);
+
+    static Database load(Plugin plugin, PluginConfig.DatabaseConfig config) throws DatabaseException {
+        final String type = config.getType();
+        if (type == null || type.equalsIgnoreCase("sqlite")) return new SQLiteDatabase(plugin, config.getServerId());
+        if (type.equalsIgnoreCase("jdbc")) {
+            try {
+                return new PooledJdbcDatabase(plugin, config);
+            } catch (IllegalArgumentException exception) {
+                throw new DatabaseException(exception.getMessage(), exception);
+            }
+        }
+
+        for (DatabaseProvider provider : ServiceLoader.load(DatabaseProvider.class, plugin.getClass().getClassLoader())) {
+            if (provider.getType().equalsIgnoreCase(type))
+                return provider.create(plugin, config);
+        }
+        throw new DatabaseException("Unknown database type " + type + ".", null);
+    }
+}
@@ -0,0 +1,102 @@
+package at.srsyntax.farmingworld.database;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * The statements which differ between the supported sql servers.
+ */
+public enum Dialect {
+
+    SQLITE("INTEGER PRIMARY KEY"),
+    MYSQL("INTEGER PRIMARY KEY AUTO_INCREMENT"),
+    POSTGRESQL("INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY"),
+    H2("INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY");
+
+    private final String identity;
+
+    Dialect(String identity) {
+        this.identity = identity;
+    }
+
+    public static Dialect fromUrl(String jdbcUrl) {
+        final String url = jdbcUrl.toLowerCase();
+        if (url.startsWith("jdbc:sqlite:")) return SQLITE;
+        if (url.startsWith("jdbc:mysql:") || url.startsWith("jdbc:mariadb:")) return MYSQL;
+        if (url.startsWith("jdbc:postgresql:")) return POSTGRESQL;
+        if (url.startsWith("jdbc:h2:")) return H2;
+        throw new IllegalArgumentException("Unsupported database url " + jdbcUrl);
+    }
+
+    /**
+     * @return the column definition of an auto generated integer primary key
+     */
+    public String identity() {
+        return identity;
+    }
+
+    /**
+     * Inserts a row or updates the values of the row with the same keys. The
+     * parameters are the keys followed by the values.
+     */
+    public String upsert(String table, List<String> keys, List<String> values) {
+        final List<String> columns = Stream.concat(keys.stream(), values.stream()).toList();
+        return switch (this) {
+            case H2 -> merge(table, keys, columns);
+            case MYSQL -> insert("INSERT", table, columns) + " ON DUPLICATE KEY UPDATE "
+                    + values.stream().map(value -> value + " = VALUES(" + value + ")").collect(Collectors.joining(", "));
+            default -> insert("INSERT", table, columns) + " ON CONFLICT (" + String.join(", ", keys) + ") DO UPDATE SET "
+                    + values.stream().map(value -> value + " = excluded." + value).collect(Collectors.joining(", "));
+        };
+    }
+
+    /**
+     * Inserts a row unless a row with the same keys exists.
+     */
+    public String insertIgnore(String table, List<String> keys, List<String> columns) {
+        return switch (this) {
+            case SQLITE -> insert("INSERT OR IGNORE", table, columns);
+            case MYSQL -> insert("INSERT IGNORE", table, columns);
+            case POSTGRESQL -> insert("INSERT", table, columns) + " ON CONFLICT (" + String.join(", ", keys) + ") DO NOTHING";
+            case H2 -> merge(table, keys, columns);
+        };
+    }
+
+    private static String insert(String insert, String table, List<String> columns) {
+        return insert + " INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + parameters(columns.size()) + ")";
+    }
+
+    private static String merge(String table, List<String> keys, List<String> columns) {
+        return "MERGE INTO " + table + " (" + String.join(", ", columns) + ") KEY (" + String.join(", ", keys) + ") VALUES (" + parameters(columns.size()) + ")";
+    }
+
+    private static String parameters(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
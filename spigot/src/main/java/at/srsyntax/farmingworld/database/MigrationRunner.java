@@ -0,0 +1,89 @@
+package at.srsyntax.farmingworld.database;
+
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Logger;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Applies the migrations newer than the version stored in {@code schema_version},
+ * each one in its own transaction where the server supports transactional ddl.
+ */
+@AllArgsConstructor
+public class MigrationRunner {
+
+    private final Logger logger;
+    private final Connection connection;
+
+    public void migrate(List<Migration> migrations) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS schema_version (version INTEGER PRIMARY KEY, description VARCHAR(255), applied BIGINT)");
+        }
+
+        final int current = getVersion();
+        for (Migration migration : migrations.stream().sorted(Comparator.comparingInt(Migration::version)).toList()) {
+            if (migration.version() <= current) continue;
+            apply(migration);
+            logger.info("Database migrated to version " + migration.version() + " (" + migration.description() + ")");
+        }
+    }
+
+    public int getVersion() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private void apply(Migration migration) throws SQLException {
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            migration.step().migrate(connection);
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO schema_version (version, description, applied) VALUES (?,?,?)")) {
+                statement.setInt(1, migration.version());
+                statement.setString(2, migration.description());
+                statement.setLong(3, System.currentTimeMillis());
+                statement.execute();
+            }
+            connection.commit();
+        } catch (SQLException exception) {
+            connection.rollback();
+            // another server sharing the database may have applied it in the meantime
+            if (getVersion() >= migration.version()) return;
+            throw new SQLException("Migration " + migration.version() + " (" + migration.description() + ") failed", exception);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package at.srsyntax.farmingworld.database;
+
+import lombok.Getter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Keeps the prepared statements of one connection open for reuse. A statement is
+ * leased with {@link #prepare(String)} and has to be closed again; leases which
+ * are still open after an operation are reported by {@link #checkLeaks()}. Not
+ * thread safe, a cache belongs to the thread which uses its connection.
+ */
+public class StatementCache implements AutoCloseable {
+
+    private final Logger logger;
+    @Getter private final Connection connection;
+    private final int capacity;
+    private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<>(16, .75F, true);
+    private final Set<Lease> leases = new HashSet<>();
+    private final Map<String, StatementStats> stats;
+
+    /**
+     * @param stats the execution times, shared with the caches of earlier connections
+     */
+    public StatementCache(Logger logger, Connection connection, int capacity, Map<String, StatementStats> stats) {
+        this.logger = logger;
+        this.connection = connection;
+        this.capacity = capacity;
+        this.stats = stats;
+    }
+
+    public Lease prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        boolean cached = true;
+        if (statement == null || statement.isClosed()) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+            evict();
+        } else if (isLeased(statement)) {
+            // the same statement is already in use further up the stack
+            statement = connection.prepareStatement(sql);
+            cached = false;
+        }
+
+        final Lease lease = new Lease(sql, statement, cached);
+        leases.add(lease);
+        return lease;
+    }
+
+    private boolean isLeased(PreparedStatement statement) {
+        for (Lease lease : leases)
+            if (lease.statement == statement) return true;
+        return false;
+    }
+
+    private void evict() {
+        final Iterator<Map.Entry<String, PreparedStatement>> iterator = statements.entrySet().iterator();
+        while (statements.size() > capacity && iterator.hasNext()) {
+            final PreparedStatement statement = iterator.next().getValue();
+            if (isLeased(statement)) continue;
+            iterator.remove();
+            closeQuietly(statement);
+        }
+    }
+
+    /**
+     * Releases and reports the leases which were not closed.
+     */
+    public void checkLeaks() {
+        if (leases.isEmpty()) return;
+        for (Lease lease : new ArrayList<>(leases)) {
+            logger.warning("Statement was not closed: " + lease.sql);
+            lease.close();
+        }
+    }
+
+    public List<StatementStats> getStats() {
+        final List<StatementStats> list = new ArrayList<>(stats.size());
+        stats.values().forEach(entry -> list.add(entry.copy()));
+        list.sort(Comparator.comparingLong(StatementStats::getTotalNanos).reversed());
+        return list;
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    /**
+     * Closes the statements and the connection.
+     */
+    @Override
+    public void close() {
+        checkLeaks();
+        statements.values().forEach(this::closeQuietly);
+        statements.clear();
+        try {
+            connection.close();
+        } catch (SQLException exception) {
+            logger.log(Level.WARNING, "Could not close the database connection", exception);
+        }
+    }
+
+    private void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException exception) {
+            logger.log(Level.WARNING, "Could not close a statement", exception);
+        }
+    }
+
+    public class Lease implements AutoCloseable {
+
+        private final String sql;
+        @Getter private final PreparedStatement statement;
+        private final boolean cached;
+        private final long start = System.nanoTime();
+
+        private Lease(String sql, PreparedStatement statement, boolean cached) {
+            this.sql = sql;
+            this.statement = statement;
+            this.cached = cached;
+        }
+
+        @Override
+        public void close() {
+            if (!leases.remove(this)) return;
+            stats.computeIfAbsent(sql, StatementStats::new).record(System.nanoTime() - start);
+
+            if (!cached) {
+                closeQuietly(statement);
+                return;
+            }
+            try {
+                statement.clearParameters();
+            } catch (SQLException exception) {
+                statements.remove(sql, statement);
+                closeQuietly(statement);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package at.srsyntax.farmingworld.database;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Execution times of one sql statement, bucketed into a small histogram. Reads
+ * on their own connections record into the same statistics as the writer.
+ */
+@Getter
+public class StatementStats {
+
+    public static final long[] BUCKET_MICROS = {100L, 1_000L, 10_000L, 100_000L};
+
+    private final String sql;
+    private final long[] buckets;
+    private long count, totalNanos, maxNanos;
+
+    public StatementStats(String sql) {
+        this.sql = sql;
+        this.buckets = new long[BUCKET_MICROS.length + 1];
+    }
+
+    private StatementStats(StatementStats stats) {
+        this.sql = stats.sql;
+        this.buckets = stats.buckets.clone();
+        this.count = stats.count;
+        this.totalNanos = stats.totalNanos;
+        this.maxNanos = stats.maxNanos;
+    }
+
+    public synchronized void record(long nanos) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int bucket = 0;
+        while (bucket < BUCKET_MICROS.length && micros >= BUCKET_MICROS[bucket]) bucket++;
+        buckets[bucket]++;
+
+        count++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    public double getAverageMillis() {
+        return count == 0 ? 0D : totalNanos / (double) count / 1_000_000D;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos / 1_000_000D;
+    }
+
+    public synchronized StatementStats copy() {
+        return new StatementStats(this);
+    }
+}
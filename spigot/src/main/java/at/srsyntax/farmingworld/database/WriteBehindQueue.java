@@ -0,0 +1,288 @@
+package at.srsyntax.farmingworld.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Runs every statement of a connection on one database thread. Writes are queued
+ * per key, a newer write replaces the pending one of the same key, and are
+ * flushed in one transaction shortly after. A range write replaces the pending
+ * writes of all keys below it. Reads flush the queue first, so a
+ * caller always reads its own writes. The statements are reused through a
+ * {@link StatementCache} until the connection breaks.
+ * <p>
+ * With a read source, reads of other threads wait for the flush only and then
+ * run on their own connection, so they do not queue up behind each other.
+ */
+public class WriteBehindQueue {
+
+    private static final long FLUSH_DELAY_MILLIS = 250L, CLOSE_TIMEOUT_SECONDS = 30L, VALIDATE_AFTER_MILLIS = 30_000L;
+    private static final int STATEMENT_CACHE_SIZE = 64, READ_CACHE_SIZE = 4, VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final Logger logger;
+    private final ConnectionSource source, readSource;
+    private final ScheduledExecutorService executor;
+    private final Map<Object, Operation> pending = new LinkedHashMap<>();
+    private final Map<String, StatementStats> stats = new ConcurrentHashMap<>();
+    private final List<Runnable> rollbackListeners = new ArrayList<>();
+    private volatile Thread thread;
+    private boolean flushScheduled;
+    private StatementCache statements;
+    private long lastUsed;
+
+    public WriteBehindQueue(Logger logger, ConnectionSource source) {
+        this(logger, source, null);
+    }
+
+    /**
+     * @param readSource the connections for reads outside of the database thread, null to read on the database thread
+     */
+    public WriteBehindQueue(Logger logger, ConnectionSource source, ConnectionSource readSource) {
+        this.logger = logger;
+        this.source = source;
+        this.readSource = readSource;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "FarmingWorld-Database");
+            thread.setDaemon(true);
+            this.thread = thread;
+            return thread;
+        });
+    }
+
+    /**
+     * @param key writes with an equal key replace each other, the write has to set the complete row
+     */
+    public void write(Object key, Operation operation) {
+        synchronized (pending) {
+            pending.remove(key);
+            pending.put(key, operation);
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Queues a write which affects the rows of {@code key} and of every key starting
+     * with {@code key + ":"}, like deleting all rows of a farm world. The pending
+     * writes of these keys are dropped, so no earlier write runs after the range
+     * and no later write runs before it.
+     */
+    public void writeRange(String key, Operation operation) {
+        final String prefix = key + ":";
+        synchronized (pending) {
+            pending.keySet().removeIf(pendingKey -> pendingKey.equals(key)
+                    || pendingKey instanceof String string && string.startsWith(prefix));
+            pending.put(key, operation);
+            scheduleFlush();
+        }
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        try {
+            executor.schedule(this::flush, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException exception) {
+            logger.warning("The database is closed, a change was not written.");
+        }
+    }
+
+    /**
+     * Waits for the pending writes and runs the query on the database thread.
+     */
+    public <T> T read(Query<T> query) throws SQLException {
+        if (Thread.currentThread() == thread) return execute(query);
+
+        try {
+            if (readSource == null) return executor.submit(() -> execute(query)).get();
+            executor.submit(this::flush).get();
+            return executeOnReadConnection(query);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the database", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof SQLException sqlException) throw sqlException;
+            throw new SQLException(exception.getCause());
+        }
+    }
+
+    private <T> T execute(Query<T> query) throws SQLException {
+        flush();
+        final StatementCache statements = statements();
+        try {
+            return query.execute(statements);
+        } catch (SQLException exception) {
+            recover();
+            throw exception;
+        } finally {
+            statements.checkLeaks();
+        }
+    }
+
+    private <T> T executeOnReadConnection(Query<T> query) throws SQLException {
+        try (StatementCache statements = new StatementCache(logger, readSource.open(), READ_CACHE_SIZE, stats)) {
+            return query.execute(statements);
+        }
+    }
+
+    /*
+     * The connection is opened on first use and checked again after it was idle,
+     * servers close idle connections after a while.
+     */
+    private StatementCache statements() throws SQLException {
+        final long now = System.currentTimeMillis();
+        if (statements != null && now - lastUsed > VALIDATE_AFTER_MILLIS
+                && !statements.getConnection().isValid(VALIDATION_TIMEOUT_SECONDS))
+            disconnect();
+        if (statements == null)
+            statements = new StatementCache(logger, source.open(), STATEMENT_CACHE_SIZE, stats);
+        lastUsed = now;
+        return statements;
+    }
+
+    private void flush() {
+        final List<Operation> operations;
+        synchronized (pending) {
+            flushScheduled = false;
+            if (pending.isEmpty()) return;
+            operations = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+
+        try {
+            writeBatch(operations);
+        } catch (SQLException exception) {
+            logger.log(Level.WARNING, "Could not write " + operations.size() + " changes in one transaction", exception);
+            recover();
+            executeSeparately(operations);
+        }
+    }
+
+    private void writeBatch(List<Operation> operations) throws SQLException {
+        final StatementCache statements = statements();
+        final Connection connection = statements.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            for (Operation operation : operations)
+                operation.execute(statements);
+            connection.commit();
+            connection.setAutoCommit(true);
+        } finally {
+            statements.checkLeaks();
+        }
+    }
+
+    /**
+     * The listener runs on the database thread whenever the writes of a transaction
+     * were lost, caches filled inside of it have to be dropped.
+     */
+    public void addRollbackListener(Runnable listener) {
+        rollbackListeners.add(listener);
+    }
+
+    /*
+     * Rolls back the open transaction or drops the connection if it is broken.
+     */
+    private void recover() {
+        if (statements == null) return;
+        rollbackListeners.forEach(Runnable::run);
+        try {
+            final Connection connection = statements.getConnection();
+            if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+                return;
+            }
+        } catch (SQLException exception) {
+            logger.log(Level.SEVERE, "Could not roll back the database transaction", exception);
+        }
+        disconnect();
+    }
+
+    private void disconnect() {
+        if (statements == null) return;
+        statements.close();
+        statements = null;
+    }
+
+    private void executeSeparately(List<Operation> operations) {
+        for (Operation operation : operations) {
+            StatementCache statements = null;
+            try {
+                statements = statements();
+                operation.execute(statements);
+            } catch (SQLException exception) {
+                logger.log(Level.SEVERE, "Could not write a change to the database", exception);
+                recover();
+            } finally {
+                if (statements != null) statements.checkLeaks();
+            }
+        }
+    }
+
+    /**
+     * Writes the pending changes, closes the connection and stops the database thread.
+     */
+    public void close() throws InterruptedException {
+        executor.execute(() -> {
+            flush();
+            disconnect();
+        });
+        executor.shutdown();
+        if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+            logger.severe("The database queue could not be written in time.");
+    }
+
+    public int getPending() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Operation {
+        void execute(StatementCache statements) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface Query<T> {
+        T execute(StatementCache statements) throws SQLException;
+    }
+}
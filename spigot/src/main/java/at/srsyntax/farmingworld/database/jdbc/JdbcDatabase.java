@@ -0,0 +1,125 @@
+package at.srsyntax.farmingworld.database.jdbc;
+
+import at.srsyntax.farmingworld.database.ConnectionSource;
+import at.srsyntax.farmingworld.database.Database;
+import at.srsyntax.farmingworld.database.DatabaseException;
+import at.srsyntax.farmingworld.database.Dialect;
+import at.srsyntax.farmingworld.database.Migration;
+import at.srsyntax.farmingworld.database.MigrationRunner;
+import at.srsyntax.farmingworld.database.StatementCache;
+import at.srsyntax.farmingworld.database.StatementStats;
+import at.srsyntax.farmingworld.database.WriteBehindQueue;
+import at.srsyntax.farmingworld.database.repository.FarmWorldRepository;
+import at.srsyntax.farmingworld.database.repository.LocationRepository;
+import at.srsyntax.farmingworld.database.repository.SignRepository;
+import lombok.Getter;
+import org.bukkit.plugin.Plugin;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * A database reached over jdbc. Subclasses provide the connections and the
+ * migrations, the repositories are the same for every server. Each server only
+ * reads and deletes the rows of its own {@code serverId}.
+ */
+@Getter
+public abstract class JdbcDatabase implements Database {
+
+    protected final Plugin plugin;
+    private final Dialect dialect;
+    private final String serverId;
+    private WriteBehindQueue queue;
+    private FarmWorldRepository farmWorldRepository;
+    private LocationRepository locationRepository;
+    private SignRepository signRepository;
+
+    protected JdbcDatabase(Plugin plugin, Dialect dialect, String serverId) {
+        this.plugin = plugin;
+        this.dialect = dialect;
+        this.serverId = serverId;
+    }
+
+    protected abstract ConnectionSource createConnectionSource() throws SQLException;
+    protected abstract List<Migration> getMigrations();
+
+    /**
+     * @return the connections for reads outside of the database thread, null if reads share the writer's connection
+     */
+    protected ConnectionSource getReadSource() {
+        return null;
+    }
+
+    /**
+     * Called after the queue was written, e.g. to close a pool.
+     */
+    protected void closeConnectionSource() {}
+
+    @Override
+    public void connect() throws DatabaseException {
+        try {
+            final ConnectionSource source = createConnectionSource();
+            try (Connection connection = source.open()) {
+                new MigrationRunner(plugin.getLogger(), connection).migrate(getMigrations());
+            }
+
+            this.queue = new WriteBehindQueue(plugin.getLogger(), source, getReadSource());
+            final WorldIds worldIds = new WorldIds(dialect);
+            queue.addRollbackListener(worldIds::clear);
+            this.farmWorldRepository = new JdbcFarmWorldRepository(queue, dialect, serverId);
+            this.locationRepository = new JdbcLocationRepository(queue, dialect, worldIds, serverId);
+            this.signRepository = new JdbcSignRepository(queue, dialect, worldIds, serverId);
+        } catch (Exception exception) {
+            throw new DatabaseException("An error occurred while connecting to the database.", exception);
+        }
+    }
+
+    @Override
+    public void disconnect() throws DatabaseException {
+        try {
+            if (queue != null) queue.close();
+            closeConnectionSource();
+        } catch (Exception exception) {
+            throw new DatabaseException("The connection to the database could not be closed safely.", exception);
+        }
+    }
+
+    @Override
+    public int getPendingWrites() {
+        return queue == null ? 0 : queue.getPending();
+    }
+
+    @Override
+    public List<StatementStats> getStatementStats() throws DatabaseException {
+        try {
+            return queue.read(StatementCache::getStats);
+        } catch (Exception exception) {
+            throw new DatabaseException("The statement statistics could not be read.", exception);
+        }
+    }
+}
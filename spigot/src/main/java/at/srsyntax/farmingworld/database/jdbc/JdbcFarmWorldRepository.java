@@ -0,0 +1,148 @@
+package at.srsyntax.farmingworld.database.jdbc;
+
+import at.srsyntax.farmingworld.database.Dialect;
+import at.srsyntax.farmingworld.database.WriteBehindQueue;
+import at.srsyntax.farmingworld.database.repository.FarmWorldRepository;
+import at.srsyntax.farmingworld.farmworld.FarmWorldData;
+import at.srsyntax.farmingworld.farmworld.FarmWorldImpl;
+import lombok.SneakyThrows;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2023 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+public class JdbcFarmWorldRepository implements FarmWorldRepository {
+
+    private final WriteBehindQueue queue;
+    private final String serverId, upsert;
+
+    public JdbcFarmWorldRepository(WriteBehindQueue queue, Dialect dialect, String serverId) {
+        this.queue = queue;
+        this.serverId = serverId;
+        this.upsert = dialect.upsert("farm_world", List.of("server_id", "name"), List.of("current_world", "next_world", "created", "next_stage"));
+    }
+
+    @Override
+    public boolean exists(FarmWorldImpl farmWorld) {
+        try {
+            return queue.read(statements -> {
+                try (var lease = statements.prepare("SELECT name FROM farm_world WHERE server_id = ? AND name = ?")) {
+                    final PreparedStatement statement = lease.getStatement();
+                    statement.setString(1, serverId);
+                    statement.setString(2, farmWorld.getName());
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        return resultSet.next();
+                    }
+                }
+            });
+        } catch (SQLException ignored) {}
+        return false;
+    }
+
+    @Override
+    public void save(FarmWorldImpl farmWorld) {
+        final String name = farmWorld.getName();
+        final FarmWorldData data = farmWorld.getData();
+        final String currentWorld = data.getCurrentWorldName(), nextWorld = data.getNextWorldName();
+        final long created = data.getCreated();
+        final String nextStage = data.getNextStage().name();
+
+        queue.write(key(name), statements -> {
+            try (var lease = statements.prepare(upsert)) {
+                final PreparedStatement statement = lease.getStatement();
+                statement.setString(1, serverId);
+                statement.setString(2, name);
+                statement.setString(3, currentWorld);
+                statement.setString(4, nextWorld);
+                statement.setLong(5, created);
+                statement.setString(6, nextStage);
+                statement.execute();
+            }
+        });
+    }
+
+    @Override
+    public void delete(FarmWorldImpl farmWorld) {
+        delete(farmWorld.getName());
+    }
+
+    @Override
+    public void delete(String name) {
+        queue.write(key(name), statements -> {
+            try (var lease = statements.prepare("DELETE FROM farm_world WHERE server_id = ? AND name = ?")) {
+                final PreparedStatement statement = lease.getStatement();
+                statement.setString(1, serverId);
+                statement.setString(2, name);
+                statement.execute();
+            }
+        });
+    }
+
+    @Override
+    public FarmWorldData getFarmWorldData(String farmWorld) {
+        try {
+            return queue.read(statements -> {
+                final String sql = "SELECT current_world, next_world, created, next_stage FROM farm_world WHERE server_id = ? AND name = ?";
+                try (var lease = statements.prepare(sql)) {
+                    final PreparedStatement statement = lease.getStatement();
+                    statement.setString(1, serverId);
+                    statement.setString(2, farmWorld);
+
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        if (!resultSet.next()) return null;
+                        return new FarmWorldData(resultSet);
+                    }
+                }
+            });
+        } catch (SQLException exception) {
+            exception.printStackTrace();
+        }
+        return null;
+    }
+
+    @SneakyThrows
+    @Override
+    public List<String> getFarmWorlds() {
+        return queue.read(statements -> {
+            final List<String> list = new ArrayList<>();
+            try (var lease = statements.prepare("SELECT name FROM farm_world WHERE server_id = ?")) {
+                lease.getStatement().setString(1, serverId);
+                try (ResultSet resultSet = lease.getStatement().executeQuery()) {
+                    while (resultSet.next()) {
+                        list.add(resultSet.getString("name"));
+                    }
+                }
+            }
+            return list;
+        });
+    }
+
+    private static String key(String name) {
+        return "farm_world:" + name;
+    }
+}
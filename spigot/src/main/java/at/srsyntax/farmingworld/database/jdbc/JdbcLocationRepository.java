@@ -0,0 +1,169 @@
+package at.srsyntax.farmingworld.database.jdbc;
+
+import at.srsyntax.farmingworld.api.farmworld.FarmWorld;
+import at.srsyntax.farmingworld.api.farmworld.LocationCache;
+import at.srsyntax.farmingworld.database.Dialect;
+import at.srsyntax.farmingworld.database.WriteBehindQueue;
+import at.srsyntax.farmingworld.database.repository.LocationRepository;
+import org.bukkit.Location;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2023 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+public class JdbcLocationRepository implements LocationRepository {
+
+    private static final String SELECT = "SELECT l.farm_world, l.id, w.name, l.x, l.y, l.z, l.yaw, l.pitch "
+            + "FROM location_cache l JOIN world w ON w.id = l.world";
+
+    private final WriteBehindQueue queue;
+    private final WorldIds worldIds;
+    private final String serverId, upsert;
+
+    public JdbcLocationRepository(WriteBehindQueue queue, Dialect dialect, WorldIds worldIds, String serverId) {
+        this.queue = queue;
+        this.worldIds = worldIds;
+        this.serverId = serverId;
+        this.upsert = dialect.upsert("location_cache", List.of("server_id", "farm_world", "id"), List.of("world", "x", "y", "z", "yaw", "pitch"));
+    }
+
+    @Override
+    public void save(FarmWorld farmWorld, long position, Location location) {
+        final String name = farmWorld.getName();
+        final LocationCache cache = new LocationCache(location);
+        queue.write(key(name, position), statements -> {
+            final int world = worldIds.get(statements, cache.getWorld());
+            try (var lease = statements.prepare(upsert)) {
+                final PreparedStatement statement = lease.getStatement();
+                statement.setString(1, serverId);
+                statement.setString(2, name);
+                statement.setLong(3, position);
+                statement.setInt(4, world);
+                statement.setDouble(5, cache.getX());
+                statement.setDouble(6, cache.getY());
+                statement.setDouble(7, cache.getZ());
+                statement.setFloat(8, cache.getYaw());
+                statement.setFloat(9, cache.getPitch());
+                statement.execute();
+            }
+        });
+    }
+
+    @Override
+    public void delete(FarmWorld farmWorld, long position) {
+        final String name = farmWorld.getName();
+        queue.write(key(name, position), statements -> {
+            try (var lease = statements.prepare("DELETE FROM location_cache WHERE server_id = ? AND farm_world = ? AND id = ?")) {
+                final PreparedStatement statement = lease.getStatement();
+                statement.setString(1, serverId);
+                statement.setString(2, name);
+                statement.setLong(3, position);
+                statement.execute();
+            }
+        });
+    }
+
+    @Override
+    public void delete(FarmWorld farmWorld, String id) {
+        delete(farmWorld, Long.parseLong(id));
+    }
+
+    @Override
+    public void deleteByFarmWorldName(String name) {
+        queue.writeRange("location:" + name, statements -> {
+            try (var lease = statements.prepare("DELETE FROM location_cache WHERE server_id = ? AND farm_world = ?")) {
+                final PreparedStatement statement = lease.getStatement();
+                statement.setString(1, serverId);
+                statement.setString(2, name);
+                statement.execute();
+            }
+            worldIds.prune(statements);
+        });
+    }
+
+    @Override
+    public Map<String, LocationCache> getLocations(FarmWorld farmWorld) {
+        try {
+            return queue.read(statements -> {
+                final Map<String, LocationCache> map = new LinkedHashMap<>();
+                try (var lease = statements.prepare(SELECT + " WHERE l.server_id = ? AND l.farm_world = ?")) {
+                    final PreparedStatement statement = lease.getStatement();
+                    statement.setString(1, serverId);
+                    statement.setString(2, farmWorld.getName());
+
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next())
+                            map.put(Long.toString(resultSet.getLong(2)), toCache(resultSet));
+                    }
+                }
+                return map;
+            });
+        } catch (SQLException exception) {
+            exception.printStackTrace();
+        }
+
+        return new LinkedHashMap<>();
+    }
+
+    @Override
+    public Map<String, Map<String, LocationCache>> getLocations() {
+        try {
+            return queue.read(statements -> {
+                final Map<String, Map<String, LocationCache>> map = new LinkedHashMap<>();
+                try (var lease = statements.prepare(SELECT + " WHERE l.server_id = ?")) {
+                    lease.getStatement().setString(1, serverId);
+                    try (ResultSet resultSet = lease.getStatement().executeQuery()) {
+                        while (resultSet.next()) {
+                            map.computeIfAbsent(resultSet.getString(1), farmWorld -> new HashMap<>())
+                                    .put(Long.toString(resultSet.getLong(2)), toCache(resultSet));
+                        }
+                    }
+                }
+                return map;
+            });
+        } catch (SQLException exception) {
+            exception.printStackTrace();
+        }
+
+        return new LinkedHashMap<>();
+    }
+
+    private LocationCache toCache(ResultSet resultSet) throws SQLException {
+        return new LocationCache(
+                resultSet.getString(3),
+                resultSet.getDouble(4), resultSet.getDouble(5), resultSet.getDouble(6),
+                resultSet.getFloat(8), resultSet.getFloat(7)
+        );
+    }
+
+    private static String key(String farmWorld, long position) {
+        return "location:" + farmWorld + ":" + position;
+    }
+}
@@ -0,0 +1,119 @@
+package at.srsyntax.farmingworld.database.jdbc;
+
+import at.srsyntax.farmingworld.database.Dialect;
+import at.srsyntax.farmingworld.database.Migration;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * The schema on a database server. Servers never held the json tables of older
+ * releases, so they start with the schema of SQLite version 4 and follow it from there.
+ */
+public class JdbcMigrations {
+
+    /**
+     * @param serverId the server the existing rows are assigned to
+     */
+    public static List<Migration> create(Dialect dialect, String serverId) {
+        return List.of(
+                new Migration(4, "create tables", connection -> {
+                    execute(connection,
+                            "CREATE TABLE IF NOT EXISTS world (id " + dialect.identity() + ", name VARCHAR(255) NOT NULL UNIQUE)",
+                            "CREATE TABLE IF NOT EXISTS farm_world (name VARCHAR(64) NOT NULL PRIMARY KEY, current_world VARCHAR(255), "
+                                    + "next_world VARCHAR(255), created BIGINT, next_stage VARCHAR(32))",
+                            "CREATE TABLE IF NOT EXISTS location_cache (farm_world VARCHAR(64) NOT NULL, id BIGINT NOT NULL, world INTEGER NOT NULL, "
+                                    + "x DOUBLE PRECISION NOT NULL, y DOUBLE PRECISION NOT NULL, z DOUBLE PRECISION NOT NULL, "
+                                    + "yaw REAL NOT NULL, pitch REAL NOT NULL, PRIMARY KEY (farm_world, id))",
+                            "CREATE TABLE IF NOT EXISTS sign (world INTEGER NOT NULL, position BIGINT NOT NULL, farm_world VARCHAR(64), "
+                                    + "PRIMARY KEY (world, position))"
+                    );
+                    createIndex(connection, "sign_farm_world", "sign", "farm_world");
+                }),
+                new Migration(5, "server ids", connection -> serverIds(connection, serverId))
+        );
+    }
+
+    private static void serverIds(Connection connection, String serverId) throws SQLException {
+        execute(connection,
+                "CREATE TABLE farm_world_v5 (server_id VARCHAR(64) NOT NULL, name VARCHAR(64) NOT NULL, current_world VARCHAR(255), "
+                        + "next_world VARCHAR(255), created BIGINT, next_stage VARCHAR(32), PRIMARY KEY (server_id, name))",
+                "CREATE TABLE location_cache_v5 (server_id VARCHAR(64) NOT NULL, farm_world VARCHAR(64) NOT NULL, id BIGINT NOT NULL, "
+                        + "world INTEGER NOT NULL, x DOUBLE PRECISION NOT NULL, y DOUBLE PRECISION NOT NULL, z DOUBLE PRECISION NOT NULL, "
+                        + "yaw REAL NOT NULL, pitch REAL NOT NULL, PRIMARY KEY (server_id, farm_world, id))",
+                "CREATE TABLE sign_v5 (server_id VARCHAR(64) NOT NULL, world INTEGER NOT NULL, position BIGINT NOT NULL, "
+                        + "farm_world VARCHAR(64), PRIMARY KEY (server_id, world, position))"
+        );
+        // the type of a parameter in a select list is unknown to PostgreSQL
+        for (String query : List.of(
+                "INSERT INTO farm_world_v5 SELECT CAST(? AS VARCHAR(64)), name, current_world, next_world, created, next_stage FROM farm_world",
+                "INSERT INTO location_cache_v5 SELECT CAST(? AS VARCHAR(64)), farm_world, id, world, x, y, z, yaw, pitch FROM location_cache",
+                "INSERT INTO sign_v5 SELECT CAST(? AS VARCHAR(64)), world, position, farm_world FROM sign")) {
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setString(1, serverId);
+                statement.execute();
+            }
+        }
+        execute(connection,
+                "DROP TABLE farm_world",
+                "ALTER TABLE farm_world_v5 RENAME TO farm_world",
+                "DROP TABLE location_cache",
+                "ALTER TABLE location_cache_v5 RENAME TO location_cache",
+                "DROP TABLE sign",
+                "ALTER TABLE sign_v5 RENAME TO sign"
+        );
+        createIndex(connection, "sign_farm_world", "sign", "server_id, farm_world");
+    }
+
+    /*
+     * MySQL has no CREATE INDEX IF NOT EXISTS, so the index is looked up first.
+     */
+    private static void createIndex(Connection connection, String name, String table, String columns) throws SQLException {
+        final DatabaseMetaData metaData = connection.getMetaData();
+        // unquoted names are stored in lower or upper case depending on the server
+        for (String tableName : List.of(table, table.toUpperCase())) {
+            try (ResultSet resultSet = metaData.getIndexInfo(connection.getCatalog(), null, tableName, false, false)) {
+                while (resultSet.next()) {
+                    if (name.equalsIgnoreCase(resultSet.getString("INDEX_NAME"))) return;
+                }
+            }
+        }
+        execute(connection, "CREATE INDEX " + name + " ON " + table + " (" + columns + ")");
+    }
+
+    private static void execute(Connection connection, String... sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String query : sql)
+                statement.execute(query);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package at.srsyntax.farmingworld.database.jdbc;
+
+import at.srsyntax.farmingworld.FarmingWorldPlugin;
+import at.srsyntax.farmingworld.api.API;
+import at.srsyntax.farmingworld.api.farmworld.LocationCache;
+import at.srsyntax.farmingworld.api.farmworld.sign.SignCache;
+import at.srsyntax.farmingworld.database.Dialect;
+import at.srsyntax.farmingworld.database.WriteBehindQueue;
+import at.srsyntax.farmingworld.database.repository.SignRepository;
+import at.srsyntax.farmingworld.farmworld.LocationPool;
+import at.srsyntax.farmingworld.farmworld.sign.SignCacheImpl;
+import at.srsyntax.farmingworld.util.MaterialClassifier;
+import lombok.SneakyThrows;
+import org.bukkit.block.Sign;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2023 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+public class JdbcSignRepository implements SignRepository {
+
+    private final WriteBehindQueue queue;
+    private final WorldIds worldIds;
+    private final String serverId, upsert;
+
+    public JdbcSignRepository(WriteBehindQueue queue, Dialect dialect, WorldIds worldIds, String serverId) {
+        this.queue = queue;
+        this.worldIds = worldIds;
+        this.serverId = serverId;
+        this.upsert = dialect.upsert("sign", List.of("server_id", "world", "position"), List.of("farm_world"));
+    }
+
+    @Override
+    public void save(SignCacheImpl cache) {
+        final String farmWorld = cache.getFarmWorld().getName();
+        final String world = cache.getSign().getWorld().getName();
+        final long position = LocationPool.pack(cache.getSign().getLocation());
+        queue.write(key(world, position), statements -> {
+            final int worldId = worldIds.get(statements, world);
+            try (var lease = statements.prepare(upsert)) {
+                final PreparedStatement statement = lease.getStatement();
+                statement.setString(1, serverId);
+                statement.setInt(2, worldId);
+                statement.setLong(3, position);
+                statement.setString(4, farmWorld);
+                statement.execute();
+            }
+        });
+    }
+
+    @Override
+    public void delete(LocationCache cache) {
+        final String world = cache.getWorld();
+        final long position = LocationPool.pack(cache);
+        queue.write(key(world, position), statements -> {
+            final String sql = "DELETE FROM sign WHERE server_id = ? AND world = (SELECT id FROM world WHERE name = ?) AND position = ?";
+            try (var lease = statements.prepare(sql)) {
+                final PreparedStatement statement = lease.getStatement();
+                statement.setString(1, serverId);
+                statement.setString(2, world);
+                statement.setLong(3, position);
+                statement.execute();
+            }
+        });
+    }
+
+    @Override
+    public void delete(String farmWorld) {
+        queue.write("sign-farm-world:" + farmWorld, statements -> {
+            try (var lease = statements.prepare("DELETE FROM sign WHERE server_id = ? AND farm_world = ?")) {
+                final PreparedStatement statement = lease.getStatement();
+                statement.setString(1, serverId);
+                statement.setString(2, farmWorld);
+                statement.execute();
+            }
+            worldIds.prune(statements);
+        });
+    }
+
+    @SneakyThrows
+    @Override
+    public List<SignCache> getCache() {
+        final Map<LocationCache, String> rows = queue.read(statements -> {
+            final Map<LocationCache, String> map = new LinkedHashMap<>();
+            final String sql = "SELECT w.name, s.position, s.farm_world FROM sign s JOIN world w ON w.id = s.world WHERE s.server_id = ?";
+            try (var lease = statements.prepare(sql)) {
+                lease.getStatement().setString(1, serverId);
+                try (ResultSet resultSet = lease.getStatement().executeQuery()) {
+                    while (resultSet.next()) {
+                        final long position = resultSet.getLong(2);
+                        final var location = new LocationCache(
+                                resultSet.getString(1),
+                                LocationPool.unpackX(position), LocationPool.unpackY(position), LocationPool.unpackZ(position),
+                                0F, 0F
+                        );
+                        map.put(location, resultSet.getString(3));
+                    }
+                }
+            }
+            return map;
+        });
+
+        final API api = FarmingWorldPlugin.getApi();
+        final List<SignCache> result = new ArrayList<>();
+        final List<String> deleted = new ArrayList<>();
+
+        for (Map.Entry<LocationCache, String> row : rows.entrySet()) {
+            final String worldName = row.getValue();
+            if (worldName == null) continue;
+            if (deleted.contains(worldName)) continue;
+
+            final var farmWorld = api.getFarmWorld(worldName);
+            if (farmWorld == null) {
+                deleted.add(worldName);
+                delete(worldName);
+                continue;
+            }
+
+            final var cache = row.getKey();
+            final var location = cache.toBukkit();
+
+            if (location.getWorld() == null || !MaterialClassifier.isSign(location.getBlock().getType())) {
+                delete(cache);
+                continue;
+            }
+
+            final Sign sign = (Sign) location.getBlock().getState();
+            result.add(new SignCacheImpl(sign, cache, farmWorld));
+        }
+
+        return result;
+    }
+
+    private static String key(String world, long position) {
+        return "sign:" + world + ":" + position;
+    }
+}
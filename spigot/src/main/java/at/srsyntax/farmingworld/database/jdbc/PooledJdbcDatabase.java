@@ -0,0 +1,81 @@
+package at.srsyntax.farmingworld.database.jdbc;
+
+import at.srsyntax.farmingworld.config.PluginConfig;
+import at.srsyntax.farmingworld.database.ConnectionSource;
+import at.srsyntax.farmingworld.database.Dialect;
+import at.srsyntax.farmingworld.database.Migration;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.bukkit.plugin.Plugin;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * A MySQL, MariaDB, PostgreSQL or H2 database shared by several servers. The
+ * connections come from a HikariCP pool: the database thread of the
+ * {@link at.srsyntax.farmingworld.database.WriteBehindQueue} keeps one for the
+ * writes, reads of other threads borrow the rest.
+ */
+public class PooledJdbcDatabase extends JdbcDatabase {
+
+    private final PluginConfig.DatabaseConfig config;
+    private HikariDataSource dataSource;
+
+    public PooledJdbcDatabase(Plugin plugin, PluginConfig.DatabaseConfig config) {
+        super(plugin, Dialect.fromUrl(config.getUrl()), config.getServerId());
+        this.config = config;
+    }
+
+    @Override
+    protected ConnectionSource createConnectionSource() {
+        final HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName("FarmingWorld");
+        hikari.setJdbcUrl(config.getUrl());
+        hikari.setUsername(config.getUsername());
+        hikari.setPassword(config.getPassword());
+        hikari.setMaximumPoolSize(Math.max(2, config.getPoolSize()));
+        hikari.setConnectionTimeout(TimeUnit.SECONDS.toMillis(config.getConnectionTimeoutSeconds()));
+        this.dataSource = new HikariDataSource(hikari);
+        return dataSource::getConnection;
+    }
+
+    @Override
+    protected ConnectionSource getReadSource() {
+        return dataSource::getConnection;
+    }
+
+    @Override
+    protected List<Migration> getMigrations() {
+        return JdbcMigrations.create(getDialect(), getServerId());
+    }
+
+    @Override
+    protected void closeConnectionSource() {
+        if (dataSource != null) dataSource.close();
+    }
+}
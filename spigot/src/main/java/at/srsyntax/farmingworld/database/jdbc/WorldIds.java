@@ -0,0 +1,85 @@
+package at.srsyntax.farmingworld.database.jdbc;
+
+import at.srsyntax.farmingworld.database.Dialect;
+import at.srsyntax.farmingworld.database.StatementCache;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Maps world names to the ids of the {@code world} table, so location rows store
+ * an integer instead of the name. Only used on the database thread, the ids
+ * have to be cleared when a transaction is rolled back.
+ */
+public class WorldIds {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final String insert;
+
+    public WorldIds(Dialect dialect) {
+        this.insert = dialect.insertIgnore("world", List.of("name"), List.of("name"));
+    }
+
+    public int get(StatementCache statements, String world) throws SQLException {
+        final Integer cached = ids.get(world);
+        if (cached != null) return cached;
+
+        try (var lease = statements.prepare(insert)) {
+            lease.getStatement().setString(1, world);
+            lease.getStatement().execute();
+        }
+        try (var lease = statements.prepare("SELECT id FROM world WHERE name = ?")) {
+            final PreparedStatement statement = lease.getStatement();
+            statement.setString(1, world);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) throw new SQLException("World " + world + " has no id");
+                final int id = resultSet.getInt(1);
+                ids.put(world, id);
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Deletes the worlds which are neither used by a location nor by a sign.
+     */
+    public void prune(StatementCache statements) throws SQLException {
+        try (var lease = statements.prepare("DELETE FROM world WHERE id NOT IN (SELECT world FROM location_cache) "
+                + "AND id NOT IN (SELECT world FROM sign)")) {
+            lease.getStatement().execute();
+        }
+        ids.clear();
+    }
+
+    public void clear() {
+        ids.clear();
+    }
+}
@@ -31,8 +31,9 @@ import java.util.Map;
  */
 public interface LocationRepository {
 
-    void save(FarmWorld farmWorld, String id, Location location);
-    void delete(String id);
+    void save(FarmWorld farmWorld, long position, Location location);
+    void delete(FarmWorld farmWorld, long position);
+    void delete(FarmWorld farmWorld, String id);
     void deleteByFarmWorldName(String name);
     Map<String, LocationCache> getLocations(FarmWorld farmWorld);
     Map<String, Map<String, LocationCache>> getLocations();
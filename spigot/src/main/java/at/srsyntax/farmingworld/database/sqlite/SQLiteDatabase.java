@@ -1,16 +1,14 @@
 package at.srsyntax.farmingworld.database.sqlite;
 
-import at.srsyntax.farmingworld.database.Database;
-import at.srsyntax.farmingworld.database.DatabaseException;
-import at.srsyntax.farmingworld.database.repository.FarmWorldRepository;
-import at.srsyntax.farmingworld.database.repository.LocationRepository;
-import at.srsyntax.farmingworld.database.repository.SignRepository;
-import lombok.Getter;
+import at.srsyntax.farmingworld.database.ConnectionSource;
+import at.srsyntax.farmingworld.database.Dialect;
+import at.srsyntax.farmingworld.database.Migration;
+import at.srsyntax.farmingworld.database.jdbc.JdbcDatabase;
 import org.bukkit.plugin.Plugin;
 
 import java.io.File;
-import java.sql.Connection;
 import java.sql.DriverManager;
+import java.util.List;
 
 /*
  * MIT License
@@ -35,38 +33,20 @@ import java.sql.DriverManager;
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
-@Getter
-public class SQLiteDatabase implements Database {
+public class SQLiteDatabase extends JdbcDatabase {
 
-    private final Plugin plugin;private Connection connection;
-    private FarmWorldRepository farmWorldRepository;
-    private LocationRepository locationRepository;
-    private SignRepository signRepository;
-
-    public SQLiteDatabase(Plugin plugin) {
-        this.plugin = plugin;
+    public SQLiteDatabase(Plugin plugin, String serverId) {
+        super(plugin, Dialect.SQLITE, serverId);
     }
 
     @Override
-    public void connect() throws DatabaseException {
-        try {
-            final File file = new File(plugin.getDataFolder(), "database.db");
-            this.connection = DriverManager.getConnection("jdbc:sqlite:" + file.getPath());
-            this.farmWorldRepository = new SQLLiteFarmWorldRepository(connection);
-            this.locationRepository = new SQLiteLocationRepository(connection);
-            this.signRepository = new SQLiteSignRepository(connection);
-        } catch (Exception exception) {
-            throw new DatabaseException("An error occurred while connecting to the database.", exception);
-        }
+    protected ConnectionSource createConnectionSource() {
+        final File file = new File(plugin.getDataFolder(), "database.db");
+        return () -> DriverManager.getConnection("jdbc:sqlite:" + file.getPath());
     }
 
     @Override
-    public void disconnect() throws DatabaseException {
-        try {
-            if (connection != null && !connection.isClosed())
-                connection.close();
-        } catch (Exception exception) {
-            throw new DatabaseException("The connection to the database could not be closed safely.", exception);
-        }
+    protected List<Migration> getMigrations() {
+        return SQLiteMigrations.create(getServerId());
     }
 }
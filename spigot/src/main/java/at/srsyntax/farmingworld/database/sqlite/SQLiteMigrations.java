@@ -0,0 +1,227 @@
+package at.srsyntax.farmingworld.database.sqlite;
+
+import at.srsyntax.farmingworld.api.farmworld.LocationCache;
+import at.srsyntax.farmingworld.database.Migration;
+import at.srsyntax.farmingworld.farmworld.LocationPool;
+import com.google.gson.JsonParseException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * The schema of the SQLite database. Version 1 and 2 describe the tables of
+ * older releases, which created them without a version.
+ */
+public class SQLiteMigrations {
+
+    /**
+     * @param serverId the server the existing rows are assigned to
+     */
+    public static List<Migration> create(String serverId) {
+        return List.of(
+                new Migration(1, "create tables", connection -> execute(connection,
+                        "CREATE TABLE IF NOT EXISTS farm_world (name TEXT, current_world TEXT, next_world TEXT, created INTEGER )",
+                        "CREATE TABLE IF NOT EXISTS location_cache (farm_world TEXT, id TEXT, location TEXT)",
+                        "CREATE TABLE IF NOT EXISTS sign (farm_world TEXT, location TEXT)"
+                )),
+                new Migration(2, "next world stage", connection -> {
+                    if (!hasColumn(connection, "farm_world", "next_stage"))
+                        execute(connection, "ALTER TABLE farm_world ADD COLUMN next_stage TEXT");
+                }),
+                new Migration(3, "primary keys and indexes", connection -> execute(connection,
+                        "CREATE TABLE farm_world_v3 (name TEXT NOT NULL PRIMARY KEY, current_world TEXT, next_world TEXT, created INTEGER, next_stage TEXT)",
+                        "INSERT OR REPLACE INTO farm_world_v3 SELECT name, current_world, next_world, created, next_stage FROM farm_world WHERE name IS NOT NULL ORDER BY rowid",
+                        "DROP TABLE farm_world",
+                        "ALTER TABLE farm_world_v3 RENAME TO farm_world",
+
+                        "CREATE TABLE location_cache_v3 (farm_world TEXT NOT NULL, id TEXT NOT NULL, location TEXT, PRIMARY KEY (farm_world, id))",
+                        "INSERT OR REPLACE INTO location_cache_v3 SELECT farm_world, id, location FROM location_cache WHERE farm_world IS NOT NULL AND id IS NOT NULL ORDER BY rowid",
+                        "DROP TABLE location_cache",
+                        "ALTER TABLE location_cache_v3 RENAME TO location_cache",
+
+                        "CREATE TABLE sign_v3 (location TEXT NOT NULL PRIMARY KEY, farm_world TEXT)",
+                        "INSERT OR REPLACE INTO sign_v3 SELECT location, farm_world FROM sign WHERE location IS NOT NULL ORDER BY rowid",
+                        "DROP TABLE sign",
+                        "ALTER TABLE sign_v3 RENAME TO sign",
+                        "CREATE INDEX IF NOT EXISTS sign_farm_world ON sign (farm_world)"
+                )),
+                new Migration(4, "typed location columns", SQLiteMigrations::typedLocations),
+                new Migration(5, "server ids", connection -> serverIds(connection, serverId))
+        );
+    }
+
+    /*
+     * Locations were stored as json. They are moved to numeric columns with the
+     * world as id, signs are keyed by the world and their packed block position.
+     */
+    private static void typedLocations(Connection connection) throws SQLException {
+        execute(connection,
+                "CREATE TABLE world (id INTEGER PRIMARY KEY, name TEXT NOT NULL UNIQUE)",
+                "CREATE TABLE location_cache_v4 (farm_world TEXT NOT NULL, id INTEGER NOT NULL, world INTEGER NOT NULL, "
+                        + "x REAL NOT NULL, y REAL NOT NULL, z REAL NOT NULL, yaw REAL NOT NULL, pitch REAL NOT NULL, PRIMARY KEY (farm_world, id))",
+                "CREATE TABLE sign_v4 (world INTEGER NOT NULL, position INTEGER NOT NULL, farm_world TEXT, PRIMARY KEY (world, position))"
+        );
+
+        final Map<String, Integer> worlds = new HashMap<>();
+        try (Statement select = connection.createStatement();
+             ResultSet resultSet = select.executeQuery("SELECT farm_world, id, location FROM location_cache");
+             PreparedStatement insert = connection.prepareStatement("INSERT OR REPLACE INTO location_cache_v4 VALUES (?,?,?,?,?,?,?,?)")) {
+            while (resultSet.next()) {
+                final LocationCache location = parse(resultSet.getString("location"));
+                if (location == null) continue;
+
+                final String id = resultSet.getString("id");
+                insert.setString(1, resultSet.getString("farm_world"));
+                insert.setLong(2, isNumeric(id) ? Long.parseLong(id) : LocationPool.pack(location));
+                insert.setInt(3, worldId(connection, worlds, location.getWorld()));
+                insert.setDouble(4, location.getX());
+                insert.setDouble(5, location.getY());
+                insert.setDouble(6, location.getZ());
+                insert.setFloat(7, location.getYaw());
+                insert.setFloat(8, location.getPitch());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        try (Statement select = connection.createStatement();
+             ResultSet resultSet = select.executeQuery("SELECT farm_world, location FROM sign");
+             PreparedStatement insert = connection.prepareStatement("INSERT OR REPLACE INTO sign_v4 VALUES (?,?,?)")) {
+            while (resultSet.next()) {
+                final LocationCache location = parse(resultSet.getString("location"));
+                if (location == null) continue;
+
+                insert.setInt(1, worldId(connection, worlds, location.getWorld()));
+                insert.setLong(2, LocationPool.pack(location));
+                insert.setString(3, resultSet.getString("farm_world"));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        execute(connection,
+                "DROP TABLE location_cache",
+                "ALTER TABLE location_cache_v4 RENAME TO location_cache",
+                "DROP TABLE sign",
+                "ALTER TABLE sign_v4 RENAME TO sign",
+                "CREATE INDEX IF NOT EXISTS sign_farm_world ON sign (farm_world)"
+        );
+    }
+
+    private static void serverIds(Connection connection, String serverId) throws SQLException {
+        execute(connection,
+                "CREATE TABLE farm_world_v5 (server_id TEXT NOT NULL, name TEXT NOT NULL, current_world TEXT, next_world TEXT, "
+                        + "created INTEGER, next_stage TEXT, PRIMARY KEY (server_id, name))",
+                "CREATE TABLE location_cache_v5 (server_id TEXT NOT NULL, farm_world TEXT NOT NULL, id INTEGER NOT NULL, world INTEGER NOT NULL, "
+                        + "x REAL NOT NULL, y REAL NOT NULL, z REAL NOT NULL, yaw REAL NOT NULL, pitch REAL NOT NULL, PRIMARY KEY (server_id, farm_world, id))",
+                "CREATE TABLE sign_v5 (server_id TEXT NOT NULL, world INTEGER NOT NULL, position INTEGER NOT NULL, farm_world TEXT, "
+                        + "PRIMARY KEY (server_id, world, position))"
+        );
+        copy(connection, serverId,
+                "INSERT INTO farm_world_v5 SELECT ?, name, current_world, next_world, created, next_stage FROM farm_world",
+                "INSERT INTO location_cache_v5 SELECT ?, farm_world, id, world, x, y, z, yaw, pitch FROM location_cache",
+                "INSERT INTO sign_v5 SELECT ?, world, position, farm_world FROM sign"
+        );
+        execute(connection,
+                "DROP TABLE farm_world",
+                "ALTER TABLE farm_world_v5 RENAME TO farm_world",
+                "DROP TABLE location_cache",
+                "ALTER TABLE location_cache_v5 RENAME TO location_cache",
+                "DROP TABLE sign",
+                "ALTER TABLE sign_v5 RENAME TO sign",
+                "CREATE INDEX IF NOT EXISTS sign_farm_world ON sign (server_id, farm_world)"
+        );
+    }
+
+    private static void copy(Connection connection, String serverId, String... sql) throws SQLException {
+        for (String query : sql) {
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setString(1, serverId);
+                statement.execute();
+            }
+        }
+    }
+
+    private static LocationCache parse(String json) {
+        try {
+            final LocationCache location = LocationCache.fromJson(json);
+            return location == null || location.getWorld() == null ? null : location;
+        } catch (JsonParseException exception) {
+            return null;
+        }
+    }
+
+    private static boolean isNumeric(String id) {
+        try {
+            Long.parseLong(id);
+            return true;
+        } catch (NumberFormatException exception) {
+            return false;
+        }
+    }
+
+    private static int worldId(Connection connection, Map<String, Integer> worlds, String world) throws SQLException {
+        final Integer cached = worlds.get(world);
+        if (cached != null) return cached;
+
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO world (name) VALUES (?)")) {
+            statement.setString(1, world);
+            statement.execute();
+        }
+        try (PreparedStatement statement = connection.prepareStatement("SELECT id FROM world WHERE name = ?")) {
+            statement.setString(1, world);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                worlds.put(world, resultSet.getInt(1));
+                return resultSet.getInt(1);
+            }
+        }
+    }
+
+    private static void execute(Connection connection, String... sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String query : sql)
+                statement.execute(query);
+        }
+    }
+
+    private static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (resultSet.next()) {
+                if (resultSet.getString("name").equalsIgnoreCase(column)) return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,112 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Keeps the chunks of the next cached destinations of a farm world loaded with
+ * plugin chunk tickets. Only the first {@code warm} entries of the location cache
+ * are leased. A lease ends after its TTL or shortly after its location has been
+ * handed out; an expired lease is only renewed after the next teleport, so an idle
+ * farm world does not keep chunks loaded forever.
+ */
+public class ChunkLeaseManager {
+
+    private static final long RELEASE_DELAY = 5000L;
+
+    private final Plugin plugin;
+    private final Map<Long, Long> leases = new HashMap<>();
+    private final Set<Long> expired = new HashSet<>();
+    private World world;
+
+    public ChunkLeaseManager(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Releases expired leases and leases the chunks of the next destinations.
+     * @param executor runs the ticket creation on the main thread, since it can load the chunk
+     */
+    public void update(World world, LocationPool pool, int warm, long ttlMillis, Executor executor) {
+        if (this.world != null && !this.world.equals(world)) releaseAll();
+        this.world = world;
+        if (world == null) return;
+
+        final long now = System.currentTimeMillis();
+        leases.entrySet().removeIf(entry -> {
+            if (entry.getValue() > now) return false;
+            removeTicket(entry.getKey());
+            expired.add(entry.getKey());
+            return true;
+        });
+
+        for (int i = 0; i < Math.min(warm, pool.size()); i++) {
+            final long position = pool.get(i);
+            final int chunkX = LocationPool.unpackX(position) >> 4, chunkZ = LocationPool.unpackZ(position) >> 4;
+            final long chunk = key(chunkX, chunkZ);
+            if (leases.containsKey(chunk) || expired.contains(chunk)) continue;
+
+            leases.put(chunk, now + ttlMillis);
+            executor.execute(() -> {
+                if (world.equals(this.world) && leases.containsKey(chunk))
+                    world.addPluginChunkTicket(chunkX, chunkZ, plugin);
+            });
+        }
+    }
+
+    /**
+     * Called when a cached location has been handed out. Its ticket is kept for a
+     * few seconds until the player arrived and is then released.
+     */
+    public void handedOut(long position) {
+        expired.clear();
+        final long chunk = key(LocationPool.unpackX(position) >> 4, LocationPool.unpackZ(position) >> 4);
+        leases.computeIfPresent(chunk, (key, expires) -> Math.min(expires, System.currentTimeMillis() + RELEASE_DELAY));
+    }
+
+    public void releaseAll() {
+        leases.keySet().forEach(this::removeTicket);
+        leases.clear();
+        expired.clear();
+    }
+
+    public int getTickets() {
+        return leases.size();
+    }
+
+    private void removeTicket(long chunk) {
+        if (world == null) return;
+        world.removePluginChunkTicket((int) (chunk >> 32), (int) chunk, plugin);
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return (long) chunkX << 32 | chunkZ & 0xFFFFFFFFL;
+    }
+}
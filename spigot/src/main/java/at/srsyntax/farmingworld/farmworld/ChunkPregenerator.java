@@ -0,0 +1,111 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import lombok.Getter;
+import org.bukkit.World;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Generates the chunks of a square around a center chunk, spiralling outwards so
+ * the area closest to the center is ready first. The number of chunks per tick
+ * grows by one per second while the server keeps up and is halved as soon as the
+ * tick interval exceeds the target.
+ */
+public class ChunkPregenerator {
+
+    // chunks already generated only cost a region header lookup
+    private static final int MAX_CHECKS_PER_TICK = 256;
+
+    @Getter private final String worldName;
+    private final int centerX, centerZ;
+    @Getter private final long total;
+    @Getter private long index, generated;
+    @Getter private int chunksPerTick = 1;
+    @Getter private boolean paused;
+    private final long started = System.currentTimeMillis();
+    private int ticks;
+
+    public ChunkPregenerator(World world, int centerX, int centerZ, int radius) {
+        this.worldName = world.getName();
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.total = (2L * radius + 1L) * (2L * radius + 1L);
+    }
+
+    /**
+     * @param tickMillis smoothed tick interval
+     * @param pause true to skip this tick
+     */
+    public void tick(World world, double tickMillis, double targetTickMillis, int maxChunksPerTick, boolean pause) {
+        paused = pause;
+        if (pause || isDone()) return;
+
+        if (++ticks % 20 == 0) {
+            if (tickMillis > targetTickMillis) chunksPerTick = Math.max(1, chunksPerTick / 2);
+            else if (chunksPerTick < maxChunksPerTick) chunksPerTick++;
+        }
+
+        int work = 0, checks = 0;
+        while (index < total && work < chunksPerTick && checks++ < MAX_CHECKS_PER_TICK) {
+            final long[] offset = spiral(++index);
+            final int x = centerX + (int) offset[0], z = centerZ + (int) offset[1];
+            if (world.isChunkGenerated(x, z)) continue;
+
+            world.loadChunk(x, z, true);
+            world.unloadChunkRequest(x, z);
+            generated++;
+            work++;
+        }
+    }
+
+    public boolean isDone() {
+        return index >= total;
+    }
+
+    public double getProgress() {
+        return total == 0L ? 1D : (double) index / total;
+    }
+
+    /**
+     * @return generated chunks per second since the start
+     */
+    public double getRate() {
+        final long seconds = Math.max(1L, (System.currentTimeMillis() - started) / 1000L);
+        return (double) generated / seconds;
+    }
+
+    // offset of the n-th (1-based) cell of a square spiral around 0,0
+    private static long[] spiral(long n) {
+        final long k = (long) Math.ceil((Math.sqrt(n) - 1D) / 2D);
+        long t = 2L * k + 1L, m = t * t;
+        t--;
+        if (n >= m - t) return new long[]{k - (m - n), -k};
+        m -= t;
+        if (n >= m - t) return new long[]{-k, -k + (m - n)};
+        m -= t;
+        if (n >= m - t) return new long[]{-k + (m - n), k};
+        return new long[]{k, k - (m - n - t)};
+    }
+}
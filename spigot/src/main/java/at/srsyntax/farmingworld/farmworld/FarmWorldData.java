@@ -36,12 +36,18 @@ public class FarmWorldData {
 
     private long created;
     private String currentWorldName, nextWorldName;
+    private NextWorldStage nextStage;
+
+    public FarmWorldData(long created, String currentWorldName, String nextWorldName) {
+        this(created, currentWorldName, nextWorldName, nextWorldName == null ? NextWorldStage.NONE : NextWorldStage.WORLD_CREATED);
+    }
 
     public FarmWorldData(ResultSet resultSet) throws SQLException {
         this(
                 resultSet.getLong("created"),
                 resultSet.getString("current_world"),
-                resultSet.getString("next_world")
+                resultSet.getString("next_world"),
+                NextWorldStage.parse(resultSet.getString("next_stage"), resultSet.getString("next_world") != null)
         );
     }
 
@@ -5,10 +5,8 @@ import at.srsyntax.farmingworld.api.event.farmworld.FarmWorldDeletedEvent;
 import at.srsyntax.farmingworld.api.event.farmworld.FarmWorldDisabledEvent;
 import at.srsyntax.farmingworld.api.event.farmworld.FarmWorldEvent;
 import at.srsyntax.farmingworld.database.Database;
-import at.srsyntax.farmingworld.api.util.file.FileUtil;
 import lombok.AllArgsConstructor;
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.World;
 
 import java.io.File;
@@ -45,21 +43,28 @@ public class FarmWorldDeleter {
 
     public void delete() throws IOException {
         plugin.getPluginConfig().getFarmWorlds().remove(farmWorld);
+        plugin.refreshFarmWorldNames();
         plugin.getPluginConfig().save(plugin);
 
         final Database database = plugin.getDatabase();
         database.getFarmWorldRepository().delete(farmWorld);
         database.getLocationRepository().deleteByFarmWorldName(farmWorld.getName());
 
+        // the worlds are deleted below, disable() would move the players out and unload them a second time
+        final boolean enabled = farmWorld.isEnabled();
+        farmWorld.setEnabled(false);
         farmWorld.setActive(false);
         plugin.getCommandRegistry().unregister(farmWorld);
         plugin.getDisplayRegistry().unregister(farmWorld);
         plugin.getSignRegistry().unregister(farmWorld);
+        farmWorld.getChunkLeases().releaseAll();
+        plugin.getWorldIndex().removeAll(farmWorld);
 
-        if (farmWorld.isEnabled())
-            deleteWhenEnabled();
-        else deleteWhenDisabled();
+        deleteWorldByName(farmWorld.getData().getCurrentWorldName());
+        deleteWorldByName(farmWorld.getData().getNextWorldName());
+        farmWorld.invalidateWorld();
 
+        if (enabled) FarmWorldEvent.call(FarmWorldDisabledEvent.class, farmWorld);
         FarmWorldEvent.call(FarmWorldDeletedEvent.class, farmWorld);
     }
 
@@ -71,50 +76,70 @@ public class FarmWorldDeleter {
 
         plugin.getCommandRegistry().unregister(farmWorld);
         plugin.getDisplayRegistry().unregister(farmWorld);
+        farmWorld.getChunkLeases().releaseAll();
+        plugin.getWorldIndex().removeAll(farmWorld);
 
         unloadWorld(farmWorld.getWorld());
         unloadWorld(farmWorld.getNextWorld());
+        farmWorld.invalidateWorld();
 
         FarmWorldEvent.call(FarmWorldDisabledEvent.class, farmWorld);
     }
 
     private void unloadWorld(World world) {
         if (world == null) return;
-        final Location location = plugin.getPluginConfig().getSpawn().toBukkit();
-        world.getPlayers().forEach(player -> player.teleport(location));
-        Bukkit.unloadWorld(world, true);
-    }
-
-    private void deleteWhenEnabled() {
-        final FarmWorldData data = farmWorld.getData();
-        deleteWorld(data.getCurrentWorldName());
-        deleteWorld(data.getNextWorldName());
-    }
-
-    private void deleteWhenDisabled() {
-        final FarmWorldData data = farmWorld.getData();
-        deleteWorldByName(data.getCurrentWorldName());
-        deleteWorldByName(data.getNextWorldName());
+        MassTeleport.toSpawn(plugin, world, () -> {
+            // the farm world may have been enabled again in the meantime
+            if (farmWorld.isEnabled()) return;
+            closeSurfaceIndex(world);
+            Bukkit.unloadWorld(world, true);
+        }).start();
     }
 
+    // loaded worlds are emptied and unloaded first, the folders of unloaded worlds are deleted right away
     private void deleteWorldByName(String name) {
-        if (name != null) deleteWorld(Bukkit.getWorld(name));
+        if (name == null) return;
+        final World world = Bukkit.getWorld(name);
+        if (world != null) deleteWorld(world);
+        else deleteWorld(name);
     }
 
     public void deleteWorld(String worldName) {
         if (worldName == null) return;
         plugin.getLogger().info("Delete " + worldName + " (N)");
-        FileUtil.deleteFolder(new File(worldName));
+        plugin.getWorldTrash().delete(new File(worldName));
+        plugin.getWorldIndex().remove(worldName);
+        deleteSurfaceIndex(worldName);
     }
 
     public void deleteWorld(World world) {
         if (world == null) return;
-        plugin.getLogger().info("Delete " + world.getName());
+        MassTeleport.toSpawn(plugin, world, () -> {
+            plugin.getLogger().info("Delete " + world.getName());
+            closeSurfaceIndex(world);
+            Bukkit.unloadWorld(world, false);
+            plugin.getWorldIndex().remove(world);
+            plugin.getWorldTrash().delete(world.getWorldFolder());
+            deleteSurfaceIndex(world.getName());
+        }).start();
+    }
 
-        final Location fallback = plugin.getPluginConfig().getSpawn().toBukkit();
-        world.getPlayers().forEach(player -> player.teleport(fallback));
+    private void closeSurfaceIndex(World world) {
+        final SurfaceIndex index = farmWorld.getSurfaceIndex(), nextIndex = farmWorld.getNextSurfaceIndex();
+        if (index != null && index.getWorld().equals(world)) {
+            index.flush();
+            farmWorld.setSurfaceIndex(null);
+        }
+        if (nextIndex != null && nextIndex.getWorld().equals(world)) {
+            nextIndex.flush();
+            farmWorld.setNextSurfaceIndex(null);
+        }
+    }
 
-        Bukkit.unloadWorld(world, false);
-        FileUtil.deleteFolder(world.getWorldFolder());
+    private void deleteSurfaceIndex(String worldName) {
+        final File file = SurfaceIndex.getFile(Bukkit.getWorldContainer(), worldName);
+        // a still mapped file can not be deleted on windows, it is removed on the next start
+        if (file.exists() && !file.delete())
+            file.deleteOnExit();
     }
 }
@@ -26,6 +26,7 @@ import org.jetbrains.annotations.Nullable;
 import java.io.File;
 import java.io.FileReader;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
@@ -75,10 +76,23 @@ public class FarmWorldImpl implements FarmWorld {
     private transient FarmWorldData data;
     @Getter @Setter
     private transient boolean loaded = false, enabled = false;
-    @Getter @Setter private transient LinkedHashMap<String, Location> locations = new LinkedHashMap<>();
+    private transient World currentWorld;
+    private transient LocationPool locationPool;
+    private transient Queue<CompletableFuture<Location>> locationRequests;
+    @Getter @Setter private transient int pendingSearches;
+    @Getter @Setter private transient boolean refilling;
+    @Getter private transient boolean generatingNextWorld;
+    private transient NextWorldProgress nextWorldProgress;
+    private transient LocationSearchStatistics searchStatistics;
+    @Getter @Setter private transient SurfaceIndex surfaceIndex, nextSurfaceIndex;
+    @Getter @Setter private transient CompletableFuture<Void> pruning;
+    private transient TargetDispersion dispersion;
+    private transient ChunkLeaseManager chunkLeases;
+    private transient PoolSizeController poolSizeController;
     @Getter private transient String oldWorldName;
     @Getter private List<String> templates;
     private SpawnLocation spawn;
+    private Integer minLocations, maxLocations;
 
     public FarmWorldImpl(String name, String permission, int cooldown, int timer, double price, World.Environment environment, String generator, Border border, List<String> aliases) {
         this.name = name;
@@ -123,9 +137,20 @@ public class FarmWorldImpl implements FarmWorld {
 
     @Override
     public void teleport(boolean sameLocation, @NotNull Player... players) {
-        final Location location = sameLocation ? randomLocation() : null;
+        if (sameLocation) {
+            requestLocation().thenAccept(location -> {
+                for (Player player : players)
+                    teleportIfOnline(player, location);
+            });
+            return;
+        }
+
         for (Player player : players)
-            player.teleport(location == null ? randomLocation() : location);
+            requestLocation().thenAccept(location -> teleportIfOnline(player, location));
+    }
+
+    private void teleportIfOnline(Player player, Location location) {
+        if (player.isOnline()) player.teleport(location);
     }
 
     @Override
@@ -189,10 +214,10 @@ public class FarmWorldImpl implements FarmWorld {
     @Override
     public boolean teleportSpawn(@NotNull Player player) {
         if (!player.isOnline()) return false;
-        var location = getSpawn();
+        final var location = getSpawn();
         if (location == null)
-            location = randomLocation();
-        player.teleport(location);
+            requestLocation().thenAccept(randomLocation -> teleportIfOnline(player, randomLocation));
+        else player.teleport(location);
         return true;
     }
 
@@ -252,6 +277,18 @@ public class FarmWorldImpl implements FarmWorld {
         return data.getCreated() + TimeUnit.MINUTES.toMillis(timer-1) <= System.currentTimeMillis() && !hasNext();
     }
 
+    /**
+     * @return true if the next world pipeline should start, leadMinutes before the reset
+     */
+    public boolean needStaging(int leadMinutes) {
+        return data.getCreated() + TimeUnit.MINUTES.toMillis(timer - leadMinutes) <= System.currentTimeMillis() && !hasNext();
+    }
+
+    public NextWorldProgress getNextWorldProgress() {
+        if (nextWorldProgress == null) nextWorldProgress = new NextWorldProgress();
+        return nextWorldProgress;
+    }
+
     @SneakyThrows
     public void save(FarmingWorldPlugin plugin) {
         final FarmWorldRepository repository = plugin.getDatabase().getFarmWorldRepository();
@@ -261,28 +298,72 @@ public class FarmWorldImpl implements FarmWorld {
 
     @Override
     public @Nullable World getWorld() {
-        return data.getCurrentWorldName() == null ? null : new FarmWorldLoader(plugin, this).generateWorld(data.getCurrentWorldName());
+        final String worldName = data.getCurrentWorldName();
+        if (worldName == null) return null;
+        if (currentWorld == null || !currentWorld.getName().equals(worldName)) {
+            // the region files are edited right now, the world is loaded once they are done
+            if (isPruning()) return null;
+            currentWorld = new FarmWorldLoader(plugin, this).generateWorld(worldName);
+        }
+        return currentWorld;
+    }
+
+    public boolean isPruning() {
+        return pruning != null && !pruning.isDone();
+    }
+
+    /**
+     * Forgets the resolved world, the next {@link #getWorld()} loads it again.
+     */
+    public void invalidateWorld() {
+        currentWorld = null;
+    }
+
+    public void invalidateWorld(World world) {
+        if (world.equals(currentWorld)) currentWorld = null;
     }
 
     @Override
     public void newWorld(@Nullable World nextWorld) {
         final World world = getWorld();
         data.setCurrentWorldName(nextWorld == null ? null : nextWorld.getName());
+        currentWorld = nextWorld;
         data.setCreated(TimeUnit.MINUTES.toMillis(TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis())));
 
         Bukkit.getPluginManager().callEvent(new FarmWorldChangeWorldEvent(this, world, getWorld()));
+        // the chunks pregenerated for the next world are indexed already
+        if (nextSurfaceIndex != null && nextSurfaceIndex.getWorld().equals(nextWorld)) {
+            surfaceIndex = nextSurfaceIndex;
+            nextSurfaceIndex = null;
+        } else {
+            new FarmWorldLoader(plugin, this).openSurfaceIndex(getWorld());
+        }
 
-        if (locations == null) locations = new LinkedHashMap<>();
-        if (!locations.isEmpty()) {
+        getSearchStatistics().resetLastGood();
+        getChunkLeases().releaseAll();
+        if (dispersion != null) dispersion.clear();
+        // locations cached by the next world pipeline become the new pool
+        final LocationPool stagedPool = getNextWorldProgress().takePool(nextWorld);
+        if (stagedPool != null) {
+            for (int i = 0; i < getLocationPool().size(); i++)
+                plugin.getDatabase().getLocationRepository().delete(this, getLocationPool().get(i));
+            locationPool = stagedPool;
+        } else if (!getLocationPool().isEmpty()) {
             plugin.getDatabase().getLocationRepository().deleteByFarmWorldName(name);
-            locations.clear();
+            getLocationPool().clear();
         }
 
         new FarmWorldLoader(plugin, this).checkLocations();
-        if (nextWorld != null && world != null)
-            teleport(world.getPlayers());
-
-        new FarmWorldDeleter(plugin, this).deleteWorld(world);
+        final FarmWorldDeleter deleter = new FarmWorldDeleter(plugin, this);
+        if (nextWorld != null && world != null) {
+            new MassTeleport(plugin, world, this::requestLocation, () -> {
+                deleter.deleteWorld(world);
+                plugin.getResetOrchestrator().finished(this);
+            }).start();
+        } else {
+            deleter.deleteWorld(world);
+            plugin.getResetOrchestrator().finished(this);
+        }
         save(plugin);
     }
 
@@ -294,19 +375,29 @@ public class FarmWorldImpl implements FarmWorld {
     @Override
     public void newNextWorld(@Nullable World world) {
         data.setNextWorldName(world == null ? null : world.getName());
+        data.setNextStage(world == null ? NextWorldStage.NONE : NextWorldStage.WORLD_CREATED);
+        plugin.getWorldIndex().put(world, this);
+        new FarmWorldLoader(plugin, this).openNextSurfaceIndex(world);
     }
 
     @Override
     public void deleteNextWorld() {
         if (!hasNext()) return;
         new FarmWorldDeleter(plugin, this).deleteWorld(getNextWorld());
+        data.setNextWorldName(null);
+        data.setNextStage(NextWorldStage.NONE);
+        getNextWorldProgress().reset();
     }
 
     @Override
     public void next() {
-        var world = hasNext() ? getNextWorld() : generateWorld();
+        var world = hasNext() ? getNextWorld() : null;
+        // the pipeline already copied the template but did not create the world yet
+        if (world == null && hasNext() && data.getNextStage() == NextWorldStage.TEMPLATE_COPIED)
+            world = new FarmWorldLoader(plugin, this).generateWorld(data.getNextWorldName());
         if (world == null) world = generateWorld();
         data.setNextWorldName(null);
+        data.setNextStage(NextWorldStage.NONE);
         next(world);
     }
 
@@ -333,26 +424,122 @@ public class FarmWorldImpl implements FarmWorld {
     }
 
     @Override
-    public void addLocation(String id, Location location) {
-        if (locations == null) locations = new LinkedHashMap<>();
-        locations.put(id, location);
+    public void addLocation(Location location) {
+        getLocationPool().push(LocationPool.pack(location));
     }
 
     @Override
-    public void removeLocation(String id) {
-        locations.remove(id);
-        plugin.getDatabase().getLocationRepository().delete(id);
+    public int getCachedLocations() {
+        return getLocationPool().size();
+    }
+
+    public LocationSearchStatistics getSearchStatistics() {
+        if (searchStatistics == null) searchStatistics = new LocationSearchStatistics();
+        return searchStatistics;
+    }
+
+    public @Nullable TargetDispersion getDispersion() {
+        final var config = plugin.getPluginConfig().getDispersion();
+        if (!config.isEnabled() || border == null) return null;
+        if (dispersion == null)
+            dispersion = TargetDispersion.create(border.getSize(), config.getMinDistance(), config.getRegionCap(), config.getMemory());
+        return dispersion;
+    }
+
+    public ChunkLeaseManager getChunkLeases() {
+        if (chunkLeases == null) chunkLeases = new ChunkLeaseManager(plugin);
+        return chunkLeases;
+    }
+
+    public LocationPool getLocationPool() {
+        if (locationPool == null) locationPool = new LocationPool(getMaxLocations());
+        return locationPool;
+    }
+
+    public PoolSizeController getPoolSizeController() {
+        if (poolSizeController == null) poolSizeController = new PoolSizeController();
+        return poolSizeController;
+    }
+
+    public int getMinLocations() {
+        final int min = minLocations == null ? plugin.getPluginConfig().getAdaptivePool().getMinSize() : minLocations;
+        return Math.min(min, getMaxLocations());
+    }
+
+    public int getMaxLocations() {
+        return maxLocations == null ? plugin.getPluginConfig().getLocationCache() : maxLocations;
+    }
+
+    /**
+     * @return the number of locations the pool should hold at the current demand
+     */
+    public int getPoolTarget() {
+        final var config = plugin.getPluginConfig().getAdaptivePool();
+        final int max = getMaxLocations();
+        if (max <= 0) return 0;
+        if (!config.isEnabled()) return max;
+        return getPoolSizeController().getTarget(getMinLocations(), max, config.getBufferSeconds());
+    }
+
+    /**
+     * Drops the newest cached locations until the pool is not larger than the target.
+     */
+    public void trimLocationPool(int target) {
+        final LocationPool pool = getLocationPool();
+        while (pool.size() > target)
+            plugin.getDatabase().getLocationRepository().delete(this, pool.removeLast());
+        pool.trim(target);
     }
 
     @Override
     public Location randomLocation() {
-        if (locations.isEmpty())
-            return new FarmWorldLoader(plugin, this).generateLocation(true);
-        final Map.Entry<String, Location> location = locations.entrySet().stream().findFirst().get();
-        removeLocation(location.getKey());
-        if (locations.size() < plugin.getPluginConfig().getLocationCache())
-            new FarmWorldLoader(plugin, this).generateLocation(true);
-        return location.getValue();
+        getPoolSizeController().recordDemand();
+        final Location location = pollLocation();
+        if (location != null) return location;
+        // a search could load chunks on the main thread, the refiller tops the pool up in the background
+        return new LocationRandomizerImpl(plugin, plugin.getMaterialClassifier(), plugin.getPluginConfig().getBlacklist(), this).fallback();
+    }
+
+    @Override
+    public CompletableFuture<Location> requestLocation() {
+        getPoolSizeController().recordDemand();
+        final Location location = pollLocation();
+        if (location != null) return CompletableFuture.completedFuture(location);
+
+        final CompletableFuture<Location> future = new CompletableFuture<>();
+        getLocationRequests().add(future);
+        return future;
+    }
+
+    private Location pollLocation() {
+        if (getLocationPool().isEmpty()) return null;
+        final long position = getLocationPool().pop();
+        getChunkLeases().handedOut(position);
+        plugin.getDatabase().getLocationRepository().delete(this, position);
+        return LocationPool.toLocation(getWorld(), position);
+    }
+
+    public Queue<CompletableFuture<Location>> getLocationRequests() {
+        if (locationRequests == null) locationRequests = new ArrayDeque<>();
+        return locationRequests;
+    }
+
+    /**
+     * Hands a freshly generated location to the oldest waiting request.
+     * @return false if nobody is waiting and the location should go into the cache
+     */
+    public boolean completeLocationRequest(Location location) {
+        CompletableFuture<Location> future;
+        while ((future = getLocationRequests().poll()) != null) {
+            if (future.complete(location)) return true;
+        }
+        return false;
+    }
+
+    public void failLocationRequests(Throwable throwable) {
+        CompletableFuture<Location> future;
+        while ((future = getLocationRequests().poll()) != null)
+            future.completeExceptionally(throwable);
     }
 
     @Override
@@ -365,13 +552,13 @@ public class FarmWorldImpl implements FarmWorld {
                 && Objects.equals(name, farmWorld.name) && Objects.equals(permission, farmWorld.permission)
                 && environment == farmWorld.environment && Objects.equals(generator, farmWorld.generator)
                 && Objects.equals(border, farmWorld.border) && Objects.equals(aliases, farmWorld.aliases)
-                && Objects.equals(data, farmWorld.data) && Objects.equals(locations, farmWorld.locations)
+                && Objects.equals(data, farmWorld.data)
                 && Objects.equals(oldWorldName, farmWorld.oldWorldName);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, permission, cooldown, timer, environment, generator, border, active, aliases, data, loaded, enabled, locations, oldWorldName);
+        return Objects.hash(name, permission, cooldown, timer, environment, generator, border, active, aliases, data, loaded, enabled, oldWorldName);
     }
 
     @Override
@@ -407,4 +594,23 @@ public class FarmWorldImpl implements FarmWorld {
     public void newNextWorld(TemplateData data) {
         newNextWorld(new FarmWorldLoader(plugin, this).generateWorld(data));
     }
+
+    /**
+     * Generates the next world with the template copied in the background.
+     */
+    public void generateNextWorldAsync() {
+        if (generatingNextWorld) return;
+        generatingNextWorld = true;
+
+        new FarmWorldLoader(plugin, this).generateWorldAsync(null).whenComplete((world, throwable) -> {
+            generatingNextWorld = false;
+            if (throwable != null) {
+                plugin.getLogger().severe("Next world for " + name + " could not be created: " + throwable.getMessage());
+                return;
+            }
+            // the farm world was reset or disabled while the template was copied
+            if (hasNext() || !isEnabled()) new FarmWorldDeleter(plugin, this).deleteWorld(world);
+            else newNextWorld(world);
+        });
+    }
 }
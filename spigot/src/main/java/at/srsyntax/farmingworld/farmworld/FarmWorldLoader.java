@@ -9,17 +9,21 @@ import at.srsyntax.farmingworld.api.farmworld.LocationCache;
 import at.srsyntax.farmingworld.api.template.TemplateData;
 import at.srsyntax.farmingworld.database.repository.FarmWorldRepository;
 import at.srsyntax.farmingworld.database.repository.LocationRepository;
+import at.srsyntax.farmingworld.util.RegionPruner;
 import lombok.AllArgsConstructor;
-import lombok.SneakyThrows;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.WorldBorder;
 
 import java.io.File;
-import java.util.LinkedHashMap;
+import java.io.IOException;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
 /*
  * MIT License
@@ -70,27 +74,83 @@ public class FarmWorldLoader {
     public void enable() {
         if (!farmWorld.isLoaded()) load();
         plugin.getLogger().info("Enable " + farmWorld.getName() + "...");
+        final String worldName = farmWorld.getData().getCurrentWorldName();
+        final CompletableFuture<Void> pruning = worldName == null ? CompletableFuture.completedFuture(null) : pruneRegions(worldName);
+        if (pruning.isDone()) {
+            enableWorlds();
+            return;
+        }
+
+        // the world is created once its stale chunks are removed
+        pruning.thenRunAsync(this::enableWorlds, mainThread()).exceptionally(throwable -> {
+            plugin.getLogger().log(Level.SEVERE, "Could not enable " + farmWorld.getName(), throwable);
+            return null;
+        });
+    }
+
+    private void enableWorlds() {
         loadCurrentWorld();
         if (farmWorld.hasNext()) generateWorld(farmWorld.getData().getNextWorldName());
+        openSurfaceIndex(farmWorld.getWorld());
+        openNextSurfaceIndex(farmWorld.getNextWorld());
         loadLocationCaches();
         setBorder(farmWorld.getWorld());
         setBorder(farmWorld.getNextWorld());
+        plugin.getWorldIndex().put(farmWorld.getWorld(), farmWorld);
+        plugin.getWorldIndex().put(farmWorld.getNextWorld(), farmWorld);
         plugin.getDisplayRegistry().register(farmWorld);
         farmWorld.setEnabled(true);
         registerAliasCommand();
         farmWorld.save(plugin);
+        plugin.getFarmWorldScheduler().schedule(farmWorld);
         FarmWorldEvent.call(FarmWorldEnabledEvent.class, farmWorld);
     }
 
     private void loadCurrentWorld() {
         final String worldName = farmWorld.getData().getCurrentWorldName();
-        if (worldName != null && (farmWorld.needReset() || farmWorld.needNextWorld())) {
-            new FarmWorldDeleter(plugin, farmWorld).deleteWorld(worldName);
-            farmWorld.getData().setCurrentWorldName(null);
+        if (worldName == null) {
+            // nobody can be in a world which does not exist yet
             farmWorld.next();
-        } else {
-            generateWorld(farmWorld.getData().getCurrentWorldName());
+            return;
+        }
+        generateWorld(worldName);
+        // overdue worlds are reset once the server is up, not all at once during startup
+        if (farmWorld.needReset())
+            plugin.getResetOrchestrator().request(farmWorld);
+    }
+
+    /**
+     * Removes the stale chunks of a world which is not loaded on the I/O executor.
+     * Single chunks can only be removed before the world is loaded, the server keeps
+     * its own copy of the region headers. {@link FarmWorldImpl#getWorld()} does not
+     * load the world until the returned future is complete.
+     */
+    public CompletableFuture<Void> pruneRegions(String worldName) {
+        final int hours = plugin.getPluginConfig().getChunkDeletePeriod();
+        if (hours <= 0 || Bukkit.getWorld(worldName) != null) return CompletableFuture.completedFuture(null);
+
+        final File folder = new File(Bukkit.getWorldContainer(), worldName);
+        final long created = TimeUnit.MILLISECONDS.toSeconds(farmWorld.getData().getCreated());
+        final long cutoff = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) - TimeUnit.HOURS.toSeconds(hours);
+        // a second pass waits for the first one, the pool may run them on different threads
+        final CompletableFuture<Void> previous = farmWorld.isPruning() ? farmWorld.getPruning() : CompletableFuture.completedFuture(null);
+        final CompletableFuture<Void> pruning = previous.thenRunAsync(() -> pruneRegions(worldName, folder, created, cutoff), plugin.getIoExecutor());
+        farmWorld.setPruning(pruning);
+        return pruning;
+    }
+
+    private void pruneRegions(String worldName, File folder, long created, long cutoff) {
+        if (!folder.isDirectory()) return;
+
+        final var pruner = new RegionPruner();
+        try {
+            pruner.prune(folder, created, cutoff);
+        } catch (IllegalStateException exception) {
+            plugin.getLogger().log(Level.WARNING, "Could not prune " + worldName, exception);
         }
+        if (pruner.getPrunedChunks() > 0)
+            plugin.getLogger().info(String.format("Pruned %d inactive chunks of %s (%d region files deleted, %d KiB freed)",
+                    pruner.getPrunedChunks(), worldName, pruner.getDeletedFiles(), pruner.getFreedBytes() / 1024));
     }
 
     private void setDataFromDatabase()  {
@@ -106,13 +166,34 @@ public class FarmWorldLoader {
         return generateWorld(generateRandomName(), null, true);
     }
 
-    @SneakyThrows
     public World generateWorld(String worldName, TemplateData data, boolean newWorld) {
         if (worldName == null) return generateWorld();
         if (newWorld && farmWorld.hasTemplate()) {
             final var template = data != null ? data : farmWorld.randomTemplate();
-            template.copy(new File(worldName));
+            // the world is needed right now, only the file copy itself runs in parallel
+            template.copyAsync(new File(worldName), plugin.getIoExecutor()).join();
         }
+        return createWorld(worldName);
+    }
+
+    /**
+     * Copies the template off the main thread and creates the world on the main
+     * thread once the copy is complete. Without a template the world is created right away.
+     */
+    public CompletableFuture<World> generateWorldAsync(TemplateData data) {
+        final String worldName = generateRandomName();
+        if (!farmWorld.hasTemplate()) return CompletableFuture.completedFuture(createWorld(worldName));
+
+        final var template = data != null ? data : farmWorld.randomTemplate();
+        return template.copyAsync(new File(worldName), plugin.getIoExecutor())
+                .thenApplyAsync(ignored -> createWorld(worldName), mainThread());
+    }
+
+    private Executor mainThread() {
+        return runnable -> Bukkit.getScheduler().runTask(plugin, runnable);
+    }
+
+    private World createWorld(String worldName) {
         final World world = Bukkit.createWorld(farmWorld.createWorldCreator(worldName));
         setBorder(world);
         return world;
@@ -130,6 +211,36 @@ public class FarmWorldLoader {
         return FarmingWorldPlugin.getApi().generateRandomName(farmWorld);
     }
 
+    public void openSurfaceIndex(World world) {
+        farmWorld.setSurfaceIndex(openIndex(world));
+    }
+
+    /**
+     * Opens the index of the staged next world, so its pregenerated chunks are indexed
+     * before the world becomes the current one.
+     */
+    public void openNextSurfaceIndex(World world) {
+        final SurfaceIndex previous = farmWorld.getNextSurfaceIndex();
+        if (previous != null) {
+            if (previous.getWorld().equals(world)) return;
+            previous.flush();
+        }
+        farmWorld.setNextSurfaceIndex(openIndex(world));
+    }
+
+    private SurfaceIndex openIndex(World world) {
+        final var config = plugin.getPluginConfig().getSurfaceIndex();
+        if (!config.isEnabled() || world == null || farmWorld.getBorder() == null) return null;
+
+        try {
+            final File file = SurfaceIndex.getFile(Bukkit.getWorldContainer(), world.getName());
+            return SurfaceIndex.open(file, world, farmWorld.getBorder(), config.getStride());
+        } catch (IOException exception) {
+            plugin.getLogger().warning("The surface index of " + world.getName() + " could not be opened: " + exception.getMessage());
+            return null;
+        }
+    }
+
     public void setBorder(World world) {
         final Border border = farmWorld.getBorder();
         if (border == null || world == null) return;
@@ -150,14 +261,30 @@ public class FarmWorldLoader {
          final Map<String, LocationCache> caches = getLocationRepository().getLocations(farmWorld);
          if (caches != null && !caches.isEmpty()) {
              caches.forEach((id, locationCache) -> {
-                 if (checkLocationCacheWorld(locationCache))
-                     getLocationRepository().delete(id);
-                 else loadLocation(id, locationCache.toBukkit(), false);
+                 if (isNextWorldLocation(locationCache)) {
+                     final String nextWorld = farmWorld.getData().getNextWorldName();
+                     farmWorld.getNextWorldProgress().getPool(nextWorld, farmWorld.getMaxLocations()).push(LocationPool.pack(locationCache.toBukkit()));
+                     return;
+                 }
+                 if (checkLocationCacheWorld(locationCache)) {
+                     getLocationRepository().delete(farmWorld, id);
+                     return;
+                 }
+
+                 final Location location = locationCache.toBukkit();
+                 final boolean legacyId = !id.equals(Long.toString(LocationPool.pack(location)));
+                 if (legacyId) getLocationRepository().delete(farmWorld, id);
+                 loadLocation(location, legacyId);
              });
          }
          checkLocations();
     }
 
+    private boolean isNextWorldLocation(LocationCache locationCache) {
+        final String nextWorld = farmWorld.getData().getNextWorldName();
+        return nextWorld != null && nextWorld.equalsIgnoreCase(locationCache.getWorld());
+    }
+
     private boolean checkLocationCacheWorld(LocationCache locationCache) {
         return farmWorld.getData() == null
                 || locationCache.getWorld() == null
@@ -165,27 +292,37 @@ public class FarmWorldLoader {
     }
 
     public void checkLocations() {
-        if (plugin.getPluginConfig().getLocationCache() <= 0) return;
-        if (farmWorld.getLocations() == null) farmWorld.setLocations(new LinkedHashMap<>());
-
-        int need = plugin.getPluginConfig().getLocationCache() - farmWorld.getLocations().size();
+        final int need = farmWorld.getPoolTarget() - farmWorld.getCachedLocations();
         if (need > 0) {
-            plugin.getLogger().info(String.format("%d new locations are generated for %s.", need, farmWorld.getName()));
-            for (; need > 0; need--)
-                generateLocation(true);
+            plugin.getLogger().info(String.format("%d new locations are queued for %s.", need, farmWorld.getName()));
+            farmWorld.setRefilling(true);
         }
     }
 
-    public Location generateLocation(boolean save) {
-        final Location location = FarmingWorldPlugin.getApi().createLocationRandomizer(farmWorld).random();
-        loadLocation(UUID.randomUUID().toString(), location, save);
-        return location;
+    public CompletableFuture<Location> generateLocationAsync(Executor mainThread) {
+        final var randomizer = new LocationRandomizerImpl(plugin, plugin.getMaterialClassifier(), plugin.getPluginConfig().getBlacklist(), farmWorld);
+        final String worldName = farmWorld.getData().getCurrentWorldName();
+
+        return randomizer.randomAsync(mainThread, false).handleAsync((location, throwable) -> {
+            if (!worldName.equals(farmWorld.getData().getCurrentWorldName()))
+                return location;
+
+            if (throwable != null) {
+                // fallback locations are only handed to waiting players and never cached
+                if (!farmWorld.getLocationRequests().isEmpty())
+                    farmWorld.completeLocationRequest(randomizer.fallback());
+                throw new CompletionException(throwable);
+            }
+
+            if (!farmWorld.completeLocationRequest(location))
+                loadLocation(location, true);
+            return location;
+        }, mainThread);
     }
 
-    private void loadLocation(String id, Location location, boolean save) {
-        farmWorld.addLocation(id, location);
-        if (save) getLocationRepository().save(farmWorld, UUID.randomUUID().toString(), location);
-        location.getWorld().loadChunk(location.getChunk());
+    private void loadLocation(Location location, boolean save) {
+        farmWorld.addLocation(location);
+        if (save) getLocationRepository().save(farmWorld, LocationPool.pack(location), location);
     }
 
     private void registerAliasCommand() {
@@ -0,0 +1,92 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Immutable snapshot of the farm world names and aliases. A new snapshot with a
+ * higher version is built whenever the farm world list changes, readers never lock.
+ */
+public final class FarmWorldNames {
+
+    @Getter private final long version;
+    private final Map<String, FarmWorldImpl> byName, byAlias;
+    // lower-cased names sorted for prefix lookups, names holds the original spelling
+    private final String[] keys, names;
+
+    private FarmWorldNames(long version, Map<String, FarmWorldImpl> byName, Map<String, FarmWorldImpl> byAlias) {
+        this.version = version;
+        this.byName = byName;
+        this.byAlias = byAlias;
+
+        final List<FarmWorldImpl> sorted = new ArrayList<>(byName.values());
+        sorted.sort(Comparator.comparing(farmWorld -> farmWorld.getName().toLowerCase()));
+        this.keys = new String[sorted.size()];
+        this.names = new String[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            names[i] = sorted.get(i).getName();
+            keys[i] = names[i].toLowerCase();
+        }
+    }
+
+    public static FarmWorldNames of(long version, List<FarmWorldImpl> farmWorlds) {
+        final Map<String, FarmWorldImpl> byName = new HashMap<>(), byAlias = new HashMap<>();
+        for (FarmWorldImpl farmWorld : farmWorlds) {
+            byName.putIfAbsent(farmWorld.getName().toLowerCase(), farmWorld);
+            if (farmWorld.getAliases() == null) continue;
+            for (String alias : farmWorld.getAliases())
+                byAlias.putIfAbsent(alias.toLowerCase(), farmWorld);
+        }
+        return new FarmWorldNames(version, Map.copyOf(byName), Map.copyOf(byAlias));
+    }
+
+    /**
+     * Resolves a farm world by its name, or by one of its aliases if no name matches.
+     */
+    public @Nullable FarmWorldImpl get(String name) {
+        if (name == null) return null;
+        final String key = name.toLowerCase();
+        final FarmWorldImpl farmWorld = byName.get(key);
+        return farmWorld != null ? farmWorld : byAlias.get(key);
+    }
+
+    /**
+     * @return the names starting with the prefix, ignoring case, in alphabetical order
+     */
+    public List<String> complete(String prefix) {
+        final String key = prefix.toLowerCase();
+        int index = Arrays.binarySearch(keys, key);
+        if (index < 0) index = -index - 1;
+
+        final List<String> result = new ArrayList<>();
+        for (; index < keys.length && keys[index].startsWith(key); index++)
+            result.add(names[index]);
+        return result;
+    }
+}
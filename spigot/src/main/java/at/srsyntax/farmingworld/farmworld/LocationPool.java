@@ -0,0 +1,145 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import at.srsyntax.farmingworld.api.farmworld.LocationCache;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.NoSuchElementException;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * FIFO ring buffer of block positions. Every position is packed into one long
+ * the same way Minecraft packs block positions (x 26 bit, z 26 bit, y 12 bit),
+ * so a cached location costs 8 bytes and no object.
+ */
+public class LocationPool {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private long[] positions;
+    private int head, size;
+
+    public LocationPool(int capacity) {
+        this.positions = new long[Math.max(capacity, DEFAULT_CAPACITY)];
+    }
+
+    public static long pack(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) z & 0x3FFFFFFL) << 12 | (long) y & 0xFFFL;
+    }
+
+    public static long pack(Location location) {
+        return pack(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    public static long pack(LocationCache location) {
+        return pack((int) Math.floor(location.getX()), (int) Math.floor(location.getY()), (int) Math.floor(location.getZ()));
+    }
+
+    public static int unpackX(long position) {
+        return (int) (position >> 38);
+    }
+
+    public static int unpackY(long position) {
+        return (int) (position << 52 >> 52);
+    }
+
+    public static int unpackZ(long position) {
+        return (int) (position << 26 >> 38);
+    }
+
+    public static Location toLocation(World world, long position) {
+        return new Location(world, unpackX(position) + .5D, unpackY(position), unpackZ(position) + .5D);
+    }
+
+    public void push(long position) {
+        if (size == positions.length) grow();
+        positions[(head + size++) % positions.length] = position;
+    }
+
+    public long pop() {
+        if (size == 0) throw new NoSuchElementException();
+        final long position = positions[head];
+        head = (head + 1) % positions.length;
+        size--;
+        return position;
+    }
+
+    /**
+     * Removes the position which would be popped last.
+     */
+    public long removeLast() {
+        if (size == 0) throw new NoSuchElementException();
+        return positions[(head + --size) % positions.length];
+    }
+
+    /**
+     * @param index 0 is the position which is popped next
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return positions[(head + index) % positions.length];
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return bytes used by the backing array
+     */
+    public long getMemoryUsage() {
+        return (long) positions.length * Long.BYTES;
+    }
+
+    /**
+     * Releases the backing array if it is more than twice as large as needed.
+     */
+    public void trim(int capacity) {
+        final int needed = Math.max(Math.max(capacity, size), DEFAULT_CAPACITY);
+        if (positions.length > needed << 1) resize(needed);
+    }
+
+    private void grow() {
+        resize(positions.length << 1);
+    }
+
+    private void resize(int capacity) {
+        final long[] resized = new long[capacity];
+        for (int i = 0; i < size; i++)
+            resized[i] = positions[(head + i) % positions.length];
+        positions = resized;
+        head = 0;
+    }
+}
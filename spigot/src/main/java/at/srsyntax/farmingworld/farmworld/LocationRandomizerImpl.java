@@ -1,15 +1,22 @@
 package at.srsyntax.farmingworld.farmworld;
 
+import at.srsyntax.farmingworld.FarmingWorldPlugin;
 import at.srsyntax.farmingworld.api.farmworld.Border;
 import at.srsyntax.farmingworld.api.farmworld.FarmWorld;
 import at.srsyntax.farmingworld.api.farmworld.LocationRandomizer;
+import at.srsyntax.farmingworld.config.PluginConfig;
+import at.srsyntax.farmingworld.util.MaterialClassifier;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
-import org.bukkit.block.Block;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /*
  * MIT License
@@ -36,68 +43,407 @@ import java.util.concurrent.ThreadLocalRandom;
  */
 public class LocationRandomizerImpl extends LocationRandomizer {
 
-    public LocationRandomizerImpl(List<Material> blacklist, World world, Border border) {
-        super(blacklist, world, border);
+    private static final int COLUMNS_PER_SNAPSHOT = 16, SPIRAL_STEP = 4, INDEX_DRAWS = 8;
+
+    private final FarmingWorldPlugin plugin;
+    private final MaterialClassifier classifier;
+    private final LocationSearchStatistics statistics;
+    private final PluginConfig.RandomizerConfig config;
+    private final SurfaceIndex surfaceIndex;
+    private final TargetDispersion dispersion;
+
+    public LocationRandomizerImpl(FarmingWorldPlugin plugin, MaterialClassifier classifier, List<Material> blacklist, World world, Border border, LocationSearchStatistics statistics) {
+        this(plugin, classifier, blacklist, world, border, statistics, null, null);
     }
 
-    public LocationRandomizerImpl(List<Material> blacklist, FarmWorld farmWorld) {
-        super(blacklist, farmWorld);
+    public LocationRandomizerImpl(FarmingWorldPlugin plugin, MaterialClassifier classifier, List<Material> blacklist, FarmWorld farmWorld) {
+        this(plugin, classifier, blacklist, farmWorld.getWorld(), farmWorld.getBorder(),
+                farmWorld instanceof FarmWorldImpl impl ? impl.getSearchStatistics() : null,
+                farmWorld instanceof FarmWorldImpl impl ? impl.getSurfaceIndex() : null,
+                farmWorld instanceof FarmWorldImpl impl ? impl.getDispersion() : null);
+    }
+
+    public LocationRandomizerImpl(FarmingWorldPlugin plugin, MaterialClassifier classifier, List<Material> blacklist, World world, Border border,
+                                  LocationSearchStatistics statistics, SurfaceIndex surfaceIndex, TargetDispersion dispersion) {
+        super(blacklist, world, border);
+        this.plugin = plugin;
+        this.classifier = classifier;
+        this.statistics = statistics == null ? new LocationSearchStatistics() : statistics;
+        this.config = plugin.getPluginConfig().getRandomizer();
+        this.surfaceIndex = surfaceIndex != null && surfaceIndex.getWorld().equals(world) ? surfaceIndex : null;
+        this.dispersion = dispersion;
     }
 
     @Override
     public Location random() {
-        final boolean nether = world.getEnvironment() == World.Environment.NETHER;
-        int x, y, z;
+        final BlockReader reader = new WorldBlockReader(world);
+        final long start = System.nanoTime(), deadline = start + getBudgetNanos();
 
-        do {
-            x = random(border.getCenterX());
-            z = random(border.getCenterZ());
-            y = world.getHighestBlockYAt(x, z);
+        final Location indexed = fromSurfaceIndex();
+        if (indexed != null) {
+            // the world may have changed since the column was indexed
+            final int x = indexed.getBlockX(), z = indexed.getBlockZ();
+            final int y = findSafeY(reader, x, z);
+            if (y != 0) return found(start, x, y, z);
+            evict(x, z);
+        }
+
+        for (int attempt = 0; attempt < config.getMaxAttempts() && System.nanoTime() < deadline; attempt++) {
+            final int x = random(border.getCenterX()), z = random(border.getCenterZ());
+            final int y = findY(reader, x, z);
+            if (y != 0 && isDispersed(x, z)) return found(start, x, y, z);
+        }
+
+        final Location fallback = fallback();
+        statistics.finish(start, getBudgetNanos());
+        return fallback;
+    }
+
+    @Override
+    public CompletableFuture<Location> randomAsync() {
+        final Executor mainThread = runnable -> {
+            if (Bukkit.isPrimaryThread())
+                runnable.run();
+            else
+                Bukkit.getScheduler().runTask(plugin, runnable);
+        };
+        // the search completes on a snapshot worker, API callers get the location on the main thread
+        return randomAsync(mainThread, true).whenCompleteAsync((location, throwable) -> {}, mainThread);
+    }
+
+    /**
+     * Search a random location without blocking the main thread. The future is
+     * completed on a snapshot worker, or right away if the surface index had a location.
+     * @param mainThread runs the chunk loads, must execute on the main thread
+     * @param fallback if the budget is used up, complete with a fallback location instead of a {@link LocationSearchException}
+     */
+    public CompletableFuture<Location> randomAsync(Executor mainThread, boolean fallback) {
+        final AsyncSearch search = new AsyncSearch(new CompletableFuture<>(), mainThread, fallback, System.nanoTime());
+        final Location indexed = fromSurfaceIndex();
+        if (indexed != null) verifyAsync(search, indexed.getBlockX(), indexed.getBlockZ());
+        else runSync(search);
+        return search.future;
+    }
+
+    /*
+     * The world may have changed since the column was indexed, so it is checked against
+     * a snapshot of its chunk. A stale column is evicted and the search goes on with the
+     * other columns of the same snapshot.
+     */
+    private void verifyAsync(AsyncSearch search, int x, int z) {
+        runSync(search, () -> {
+            final ChunkSnapshot snapshot = world.getChunkAt(x >> 4, z >> 4).getChunkSnapshot(true, false, false);
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+                try {
+                    final int y = findSafeY(snapshot, x, z);
+                    if (y == 0) {
+                        evict(x, z);
+                        searchSnapshot(search, snapshot);
+                    } else {
+                        search.future.complete(found(search.start, x, y, z));
+                    }
+                } catch (Exception exception) {
+                    search.future.completeExceptionally(exception);
+                }
+            });
+        });
+    }
+
+    /**
+     * Checks a column of a chunk snapshot without counting it in the statistics.
+     * @return the Y a player can stand at, 0 if the column is not safe
+     */
+    public int findSafeY(ChunkSnapshot snapshot, int x, int z) {
+        return findSafeY(new SnapshotBlockReader(snapshot), x, z);
+    }
+
+    private int findSafeY(BlockReader reader, int x, int z) {
+        final int y = findSurface(reader, x, z);
+        return y != 0 && checkY(reader, x, y - 1, z) == null ? y : 0;
+    }
+
+    /*
+     * The index only knows the columns of chunks generated so far, so it is used
+     * with the probability of its coverage to keep the targets spread over the whole border.
+     * The drawn column still has to be checked against the world.
+     */
+    private Location fromSurfaceIndex() {
+        if (surfaceIndex == null) return null;
+        if (ThreadLocalRandom.current().nextDouble() >= surfaceIndex.getCoverage()) return null;
+
+        for (int i = 0; i < INDEX_DRAWS; i++) {
+            final Location location = surfaceIndex.random();
+            if (location == null) return null;
+            statistics.attempt();
+            if (isDispersed(location.getBlockX(), location.getBlockZ())) return location;
+        }
+        return null;
+    }
+
+    private void evict(int x, int z) {
+        statistics.reject(LocationSearchStatistics.Rejection.STALE_INDEX);
+        surfaceIndex.evict(x, z);
+    }
+
+    private boolean isDispersed(int x, int z) {
+        if (dispersion == null || dispersion.tryAdd(x, z)) return true;
+        statistics.reject(LocationSearchStatistics.Rejection.CLUSTERED);
+        return false;
+    }
+
+    /**
+     * Used when the attempt or time budget is used up. Tries a spiral over the loaded
+     * chunks around the last good location for at most one tick budget, then the
+     * world spawn and at last the plugin spawn.
+     */
+    public Location fallback() {
+        final long lastGood = statistics.getLastGood();
+        if (lastGood != LocationSearchStatistics.NO_LOCATION) {
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(plugin.getPluginConfig().getLocationPool().getTickBudgetMillis());
+            final Location location = spiral(LocationPool.unpackX(lastGood), LocationPool.unpackZ(lastGood), deadline);
+            if (location != null) {
+                statistics.fallback(LocationSearchStatistics.Fallback.SPIRAL);
+                return location;
+            }
+        }
+
+        if (world != null) {
+            final Location spawn = world.getSpawnLocation();
+            final int y = findY(new WorldBlockReader(world), spawn.getBlockX(), spawn.getBlockZ());
+            if (y != 0) {
+                statistics.fallback(LocationSearchStatistics.Fallback.WORLD_SPAWN);
+                return new Location(world, spawn.getBlockX() + .5D, y, spawn.getBlockZ() + .5D);
+            }
+        }
+
+        statistics.fallback(LocationSearchStatistics.Fallback.PLUGIN_SPAWN);
+        return plugin.getPluginConfig().getSpawn().toBukkit();
+    }
+
+    /*
+     * Only reads chunks which are loaded already, the fallback must not load or generate chunks.
+     */
+    private Location spiral(int centerX, int centerZ, long deadline) {
+        final BlockReader reader = new WorldBlockReader(world);
+        final int steps = config.getSpiralRadius() / SPIRAL_STEP;
+        int x = 0, z = 0, dx = 0, dz = -1;
+
+        for (int i = 0, max = (steps * 2 + 1) * (steps * 2 + 1); i < max && System.nanoTime() < deadline; i++) {
+            final int blockX = centerX + x * SPIRAL_STEP, blockZ = centerZ + z * SPIRAL_STEP;
+            if (isInsideBorder(blockX, border.getCenterX()) && isInsideBorder(blockZ, border.getCenterZ())
+                    && world.isChunkLoaded(blockX >> 4, blockZ >> 4)) {
+                final int y = findY(reader, blockX, blockZ);
+                if (y != 0) return new Location(world, blockX + .5D, y, blockZ + .5D);
+            }
+
+            if (x == z || (x < 0 && x == -z) || (x > 0 && x == 1 - z)) {
+                final int turn = dx;
+                dx = -dz;
+                dz = turn;
+            }
+            x += dx;
+            z += dz;
+        }
+        return null;
+    }
+
+    private void loadSnapshot(AsyncSearch search) {
+        if (search.future.isDone()) return;
+        if (search.isExhausted()) {
+            exhausted(search);
+            return;
+        }
+
+        final int chunkX = random(border.getCenterX()) >> 4;
+        final int chunkZ = random(border.getCenterZ()) >> 4;
+        final ChunkSnapshot snapshot = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(true, false, false);
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> searchSnapshot(search, snapshot));
+    }
+
+    private void searchSnapshot(AsyncSearch search, ChunkSnapshot snapshot) {
+        try {
+            final BlockReader reader = new SnapshotBlockReader(snapshot);
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            final int baseX = snapshot.getX() << 4, baseZ = snapshot.getZ() << 4;
+
+            for (int i = 0; i < COLUMNS_PER_SNAPSHOT && !search.isExhausted(); i++) {
+                final int x = baseX + random.nextInt(16), z = baseZ + random.nextInt(16);
+                search.attempts++;
+                if (!isInsideBorder(x, border.getCenterX()) || !isInsideBorder(z, border.getCenterZ())) {
+                    statistics.attempt();
+                    statistics.reject(LocationSearchStatistics.Rejection.OUTSIDE_BORDER);
+                    continue;
+                }
+
+                final int y = findY(reader, x, z);
+                if (y == 0) continue;
+                // the other columns of this chunk are as close to the recent targets
+                if (!isDispersed(x, z)) break;
+
+                search.future.complete(found(search.start, x, y, z));
+                return;
+            }
+
+            runSync(search);
+        } catch (Exception exception) {
+            search.future.completeExceptionally(exception);
+        }
+    }
+
+    private void exhausted(AsyncSearch search) {
+        if (search.fallback) {
+            final Location location = fallback();
+            statistics.finish(search.start, getBudgetNanos());
+            search.future.complete(location);
+            return;
+        }
 
-            if (nether)
-                y = getYInNether(x, y, z);
-            else y++;
+        statistics.finish(search.start, getBudgetNanos());
+        search.future.completeExceptionally(new LocationSearchException(
+                String.format("No safe location found in %s after %d attempts.", world.getName(), search.attempts)
+        ));
+    }
 
-            if (!isYValid(world.getBlockAt(x, y-1, z)))
-                y = 0;
-        } while (y == 0);
+    private void runSync(AsyncSearch search) {
+        runSync(search, () -> loadSnapshot(search));
+    }
 
+    private void runSync(AsyncSearch search, Runnable task) {
+        try {
+            search.mainThread.execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception exception) {
+                    search.future.completeExceptionally(exception);
+                }
+            });
+        } catch (Exception exception) {
+            search.future.completeExceptionally(exception);
+        }
+    }
+
+    private Location found(long start, int x, int y, int z) {
+        statistics.found(LocationPool.pack(x, y, z));
+        statistics.finish(start, getBudgetNanos());
         return new Location(world, x + .5D, y, z + .5D);
     }
 
-    private int getYInNether(int x, int y, int z) {
+    private long getBudgetNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(config.getMaxSearchMillis());
+    }
+
+    private int findY(BlockReader reader, int x, int z) {
+        statistics.attempt();
+        final int y = findSurface(reader, x, z);
+        final LocationSearchStatistics.Rejection rejection = y == 0
+                ? LocationSearchStatistics.Rejection.NO_SURFACE
+                : checkY(reader, x, y - 1, z);
+        if (rejection == null) return y;
+
+        statistics.reject(rejection);
+        return 0;
+    }
+
+    private int findSurface(BlockReader reader, int x, int z) {
+        final int y = reader.getHighestBlockYAt(x, z);
+        if (world.getEnvironment() == World.Environment.NETHER)
+            return getYInNether(reader, x, y, z);
+        return y + 1;
+    }
+
+    private int getYInNether(BlockReader reader, int x, int y, int z) {
         while (y != 0) {
-            y = findBlockAtY(world, x, y, z, true);
+            y = findBlockAtY(reader, x, y, z, true);
 
             if (y <= 0) return 0;
 
             y--;
-            final Block block = world.getBlockAt(x, y, z);
-            if (!block.getType().isAir())
+            if (!reader.getType(x, y, z).isAir())
                 continue;
 
-            y = findBlockAtY(world, x, y, z, false) + 1;
+            y = findBlockAtY(reader, x, y, z, false) + 1;
             break;
         }
         return Math.max(y, 0);
     }
 
-    private int findBlockAtY(World world, int x, int y, int z, boolean air) {
-        Block block;
+    private int findBlockAtY(BlockReader reader, int x, int y, int z, boolean air) {
         do {
-            block = world.getBlockAt(x, y, z);
-            if (block.getType().isAir() == air) break;
+            if (reader.getType(x, y, z).isAir() == air) break;
             y--;
         } while (y > 0);
         return y;
     }
 
-    private boolean isYValid(Block block) {
-        return block.getY() != 0 && !blacklist.contains(block.getType());
+    private LocationSearchStatistics.Rejection checkY(BlockReader reader, int x, int y, int z) {
+        if (y == 0 || y + 1 >= world.getMaxHeight()) return LocationSearchStatistics.Rejection.NO_SURFACE;
+
+        final Material floor = reader.getType(x, y, z);
+        if (MaterialClassifier.isLiquid(floor)) return LocationSearchStatistics.Rejection.LIQUID;
+        if (!classifier.isSafeFloor(floor)) return LocationSearchStatistics.Rejection.UNSAFE_FLOOR;
+
+        if (!classifier.isSafeToStandIn(reader.getType(x, y + 1, z))
+                || (y + 2 < world.getMaxHeight() && !classifier.isSafeToStandIn(reader.getType(x, y + 2, z))))
+            return LocationSearchStatistics.Rejection.BLOCKED;
+        return null;
     }
 
     private int random(int center) {
         final int size = border.getSize()/2;
         return ThreadLocalRandom.current().nextInt(center-size, center+size);
     }
+
+    private boolean isInsideBorder(int value, int center) {
+        final int size = border.getSize()/2;
+        return value >= center-size && value < center+size;
+    }
+
+    private class AsyncSearch {
+        private final CompletableFuture<Location> future;
+        private final Executor mainThread;
+        private final boolean fallback;
+        private final long start;
+        private int attempts;
+
+        private AsyncSearch(CompletableFuture<Location> future, Executor mainThread, boolean fallback, long start) {
+            this.future = future;
+            this.mainThread = mainThread;
+            this.fallback = fallback;
+            this.start = start;
+        }
+
+        private boolean isExhausted() {
+            return attempts >= config.getMaxAttempts() || System.nanoTime() - start >= getBudgetNanos();
+        }
+    }
+
+    private interface BlockReader {
+        int getHighestBlockYAt(int x, int z);
+        Material getType(int x, int y, int z);
+    }
+
+    private record WorldBlockReader(World world) implements BlockReader {
+        @Override
+        public int getHighestBlockYAt(int x, int z) {
+            return world.getHighestBlockYAt(x, z);
+        }
+
+        @Override
+        public Material getType(int x, int y, int z) {
+            return world.getBlockAt(x, y, z).getType();
+        }
+    }
+
+    private record SnapshotBlockReader(ChunkSnapshot snapshot) implements BlockReader {
+        @Override
+        public int getHighestBlockYAt(int x, int z) {
+            // the snapshot returns the first free block above the surface, the world the surface block itself
+            return snapshot.getHighestBlockYAt(x & 15, z & 15) - 1;
+        }
+
+        @Override
+        public Material getType(int x, int y, int z) {
+            return snapshot.getBlockType(x & 15, y, z & 15);
+        }
+    }
 }
@@ -0,0 +1,121 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Counters of the random location search of one farm world.
+ * The async search updates them from worker threads, so every counter is thread safe.
+ */
+public class LocationSearchStatistics {
+
+    public static final long NO_LOCATION = Long.MIN_VALUE;
+
+    private final LongAdder searches = new LongAdder(), attempts = new LongAdder();
+    private final LongAdder nanos = new LongAdder(), overBudget = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final LongAdder[] rejections = create(Rejection.values().length);
+    private final LongAdder[] fallbacks = create(Fallback.values().length);
+    private volatile long lastGood = NO_LOCATION;
+
+    public void attempt() {
+        attempts.increment();
+    }
+
+    public void reject(Rejection rejection) {
+        rejections[rejection.ordinal()].increment();
+    }
+
+    public void fallback(Fallback fallback) {
+        fallbacks[fallback.ordinal()].increment();
+    }
+
+    public void found(long position) {
+        lastGood = position;
+    }
+
+    public void finish(long startNanos, long budgetNanos) {
+        final long time = System.nanoTime() - startNanos;
+        searches.increment();
+        nanos.add(time);
+        maxNanos.accumulateAndGet(time, Math::max);
+        if (time > budgetNanos) overBudget.increment();
+    }
+
+    public void resetLastGood() {
+        lastGood = NO_LOCATION;
+    }
+
+    public long getLastGood() {
+        return lastGood;
+    }
+
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    public long getAttempts() {
+        return attempts.sum();
+    }
+
+    public long getOverBudget() {
+        return overBudget.sum();
+    }
+
+    public long getRejections(Rejection rejection) {
+        return rejections[rejection.ordinal()].sum();
+    }
+
+    public long getFallbacks(Fallback fallback) {
+        return fallbacks[fallback.ordinal()].sum();
+    }
+
+    public double getAverageMillis() {
+        final long count = searches.sum();
+        return count == 0 ? 0D : nanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static LongAdder[] create(int length) {
+        final LongAdder[] adders = new LongAdder[length];
+        for (int i = 0; i < length; i++)
+            adders[i] = new LongAdder();
+        return adders;
+    }
+
+    public enum Rejection {
+        NO_SURFACE, OUTSIDE_BORDER, LIQUID, UNSAFE_FLOOR, BLOCKED, CLUSTERED, STALE_INDEX
+    }
+
+    public enum Fallback {
+        SPIRAL, WORLD_SPAWN, PLUGIN_SPAWN
+    }
+}
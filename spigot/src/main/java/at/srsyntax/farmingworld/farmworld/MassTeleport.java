@@ -0,0 +1,184 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import at.srsyntax.farmingworld.FarmingWorldPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Moves all players out of a world over several ticks instead of all at once.
+ * Players with the permission {@code farmingworld.priority} are moved first.
+ * The destination of every player is requested first (for farm worlds from the
+ * location cache, whose chunks are already loaded) and the player is only
+ * teleported once it is ready. The destination chunks of a batch are loaded with
+ * plugin chunk tickets one tick before the batch is teleported, so no teleport has
+ * to load its chunk first. The callback runs after the last player has left.
+ */
+public class MassTeleport implements Runnable {
+
+    public static final String PRIORITY_PERMISSION = "farmingworld.priority";
+
+    private final FarmingWorldPlugin plugin;
+    private final World from;
+    private final Supplier<CompletableFuture<Location>> destination;
+    private final Runnable finished;
+
+    private final Queue<Player> queue;
+    private final Set<Player> pending = new HashSet<>();
+    private final Map<Player, Location> resolved = new LinkedHashMap<>(), preloaded = new LinkedHashMap<>();
+    private final List<Location> tickets = new ArrayList<>();
+    private final int playersPerTick;
+    private final long deadline;
+    private int taskId = -1;
+    private boolean done;
+
+    public MassTeleport(FarmingWorldPlugin plugin, World from, Supplier<CompletableFuture<Location>> destination, Runnable finished) {
+        final var config = plugin.getPluginConfig().getMassTeleport();
+        this.plugin = plugin;
+        this.from = from;
+        this.destination = destination;
+        this.finished = finished;
+        this.playersPerTick = Math.max(config.getPlayersPerTick(), 1);
+        this.deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(config.getTimeoutSeconds());
+
+        final Comparator<Player> comparator = Comparator.comparing(player -> !player.hasPermission(PRIORITY_PERMISSION));
+        this.queue = new PriorityQueue<>(comparator);
+        queue.addAll(from.getPlayers());
+    }
+
+    /**
+     * Moves the players of the world to the plugin spawn.
+     */
+    public static MassTeleport toSpawn(FarmingWorldPlugin plugin, World from, Runnable finished) {
+        return new MassTeleport(plugin, from, () -> CompletableFuture.completedFuture(getSpawn(plugin)), finished);
+    }
+
+    public void start() {
+        if (queue.isEmpty()) {
+            finish();
+            return;
+        }
+        plugin.getLogger().info(String.format("Moving %d players out of %s...", queue.size(), from.getName()));
+        taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, this, 1L, 1L);
+    }
+
+    @Override
+    public void run() {
+        if (System.currentTimeMillis() >= deadline) {
+            timeout();
+            return;
+        }
+
+        // the destination chunks of this batch were loaded on the previous tick
+        preloaded.forEach(this::teleport);
+        preloaded.clear();
+        releaseTickets();
+        preload();
+
+        for (int i = 0; i < playersPerTick && !queue.isEmpty(); i++)
+            dispatch(queue.poll());
+
+        if (queue.isEmpty() && pending.isEmpty() && resolved.isEmpty() && preloaded.isEmpty())
+            finish();
+    }
+
+    private void preload() {
+        final var iterator = resolved.entrySet().iterator();
+        for (int i = 0; i < playersPerTick && iterator.hasNext(); i++) {
+            final var entry = iterator.next();
+            iterator.remove();
+
+            final Location location = entry.getValue();
+            final World world = location.getWorld();
+            // false if the chunk is leased already, that ticket is not ours to remove
+            if (world != null && world.addPluginChunkTicket(location.getBlockX() >> 4, location.getBlockZ() >> 4, plugin))
+                tickets.add(location);
+            preloaded.put(entry.getKey(), location);
+        }
+    }
+
+    // the players which arrived keep their chunks loaded
+    private void releaseTickets() {
+        for (Location location : tickets) {
+            final World world = location.getWorld();
+            if (world != null) world.removePluginChunkTicket(location.getBlockX() >> 4, location.getBlockZ() >> 4, plugin);
+        }
+        tickets.clear();
+    }
+
+    private void dispatch(Player player) {
+        if (!isInWorld(player)) return;
+        pending.add(player);
+
+        destination.get()
+                .exceptionally(throwable -> getSpawn(plugin))
+                .thenAccept(location -> {
+                    if (pending.remove(player)) resolved.put(player, location);
+                });
+    }
+
+    private void timeout() {
+        plugin.getLogger().warning(String.format("Moving the players out of %s took too long, the rest is moved to the spawn.", from.getName()));
+        final Location spawn = getSpawn(plugin);
+        pending.forEach(player -> teleport(player, spawn));
+        queue.forEach(player -> teleport(player, spawn));
+        resolved.keySet().forEach(player -> teleport(player, spawn));
+        preloaded.keySet().forEach(player -> teleport(player, spawn));
+        pending.clear();
+        queue.clear();
+        resolved.clear();
+        preloaded.clear();
+        finish();
+    }
+
+    private void teleport(Player player, Location location) {
+        if (!isInWorld(player)) return;
+        player.teleport(location);
+    }
+
+    private boolean isInWorld(Player player) {
+        return player.isOnline() && player.getWorld().equals(from);
+    }
+
+    private void finish() {
+        if (done) return;
+        done = true;
+        releaseTickets();
+        if (taskId != -1) Bukkit.getScheduler().cancelTask(taskId);
+        finished.run();
+    }
+
+    private static Location getSpawn(FarmingWorldPlugin plugin) {
+        return plugin.getPluginConfig().getSpawn().toBukkit();
+    }
+}
@@ -0,0 +1,73 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.bukkit.World;
+import org.jetbrains.annotations.Nullable;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * In-memory progress of the next world pipeline of one farm world. The stage
+ * itself lives in {@link FarmWorldData}, this only holds what can be rebuilt
+ * after a restart.
+ */
+@Getter @Setter
+public class NextWorldProgress {
+
+    // an asynchronous step (template copy, location search) is running
+    private boolean busy;
+    private int failedSearches;
+    private String poolWorld;
+    private LocationPool pool;
+
+    /**
+     * @return the location pool for the given next world, created on first use
+     */
+    public LocationPool getPool(String worldName, int capacity) {
+        if (pool == null || !worldName.equals(poolWorld)) {
+            pool = new LocationPool(capacity);
+            poolWorld = worldName;
+        }
+        return pool;
+    }
+
+    /**
+     * Hands the pool over to the world which becomes the current world.
+     * @return null if no locations were cached for that world
+     */
+    public @Nullable LocationPool takePool(@Nullable World world) {
+        if (pool == null || world == null || !world.getName().equals(poolWorld)) return null;
+        final LocationPool taken = pool;
+        reset();
+        return taken;
+    }
+
+    public void reset() {
+        failedSearches = 0;
+        poolWorld = null;
+        pool = null;
+    }
+}
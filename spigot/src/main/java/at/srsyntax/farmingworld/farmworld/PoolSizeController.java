@@ -0,0 +1,85 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Sizes the location pool of a farm world from its teleport demand. The demand is
+ * sampled periodically and smoothed with an exponentially weighted moving average,
+ * the pool target is the demand expected within the buffer time.
+ */
+public class PoolSizeController {
+
+    private final LongAdder demand = new LongAdder();
+    private long lastSample;
+    private double average = -1D;
+
+    public PoolSizeController() {
+        this(System.currentTimeMillis());
+    }
+
+    PoolSizeController(long now) {
+        this.lastSample = now;
+    }
+
+    public void recordDemand() {
+        demand.increment();
+    }
+
+    /**
+     * Takes a new sample if the sample interval has passed.
+     * @param alpha weight of the newest sample, between 0 and 1
+     */
+    public void update(long sampleMillis, double alpha) {
+        update(System.currentTimeMillis(), sampleMillis, alpha);
+    }
+
+    void update(long now, long sampleMillis, double alpha) {
+        final long elapsed = now - lastSample;
+        if (elapsed < sampleMillis) return;
+        lastSample = now;
+
+        final double rate = demand.sumThenReset() * 1000D / elapsed;
+        average = average < 0D ? rate : alpha * rate + (1D - alpha) * average;
+    }
+
+    /**
+     * @param bufferSeconds how long the pool should last at the current demand
+     * @return pool size between min and max
+     */
+    public int getTarget(int min, int max, int bufferSeconds) {
+        if (average < 0D) return max;
+        final int target = (int) Math.ceil(average * bufferSeconds);
+        return Math.max(min, Math.min(max, target));
+    }
+
+    /**
+     * @return smoothed teleports per minute, or -1 before the first sample
+     */
+    public double getDemandPerMinute() {
+        return average < 0D ? -1D : average * 60D;
+    }
+}
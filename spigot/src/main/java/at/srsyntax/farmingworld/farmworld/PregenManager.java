@@ -0,0 +1,108 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import at.srsyntax.farmingworld.FarmingWorldPlugin;
+import at.srsyntax.farmingworld.api.farmworld.Border;
+import at.srsyntax.farmingworld.config.PluginConfig;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Runs the chunk pre-generation of all worlds, one task per world. Finished tasks
+ * are kept for the status command until the world is unloaded.
+ */
+public class PregenManager implements Runnable {
+
+    private static final int DEFAULT_RADIUS = 16;
+
+    private final FarmingWorldPlugin plugin;
+    private final Map<String, ChunkPregenerator> tasks = new HashMap<>();
+
+    public PregenManager(FarmingWorldPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Starts (or restarts) the pre-generation of a world around the border center.
+     * @param radius in chunks, 0 or more than the border covers the whole border
+     */
+    public ChunkPregenerator start(World world, @Nullable Border border, int radius) {
+        final int centerX, centerZ;
+        if (border != null) {
+            centerX = border.getCenterX() >> 4;
+            centerZ = border.getCenterZ() >> 4;
+            final int borderRadius = Math.max(0, border.getSize() >> 5);
+            radius = radius <= 0 ? borderRadius : Math.min(radius, borderRadius);
+        } else {
+            final Location spawn = world.getSpawnLocation();
+            centerX = spawn.getBlockX() >> 4;
+            centerZ = spawn.getBlockZ() >> 4;
+            if (radius <= 0) radius = DEFAULT_RADIUS;
+        }
+
+        final ChunkPregenerator task = new ChunkPregenerator(world, centerX, centerZ, radius);
+        tasks.put(world.getName(), task);
+        plugin.getLogger().info(String.format("Pre-generate %d chunks of %s", task.getTotal(), world.getName()));
+        return task;
+    }
+
+    public @Nullable ChunkPregenerator get(World world) {
+        return tasks.get(world.getName());
+    }
+
+    public boolean stop(World world) {
+        return tasks.remove(world.getName()) != null;
+    }
+
+    @Override
+    public void run() {
+        if (tasks.isEmpty()) return;
+        final PluginConfig.PregenConfig config = plugin.getPluginConfig().getPregen();
+        final boolean pause = config.isPauseWithPlayers() && !Bukkit.getOnlinePlayers().isEmpty();
+        final double tickMillis = plugin.getTickMonitor().getAverageMillis();
+
+        final Iterator<ChunkPregenerator> iterator = tasks.values().iterator();
+        while (iterator.hasNext()) {
+            final ChunkPregenerator task = iterator.next();
+            final World world = Bukkit.getWorld(task.getWorldName());
+            if (world == null) {
+                iterator.remove();
+                continue;
+            }
+            if (task.isDone()) continue;
+
+            task.tick(world, tickMillis, config.getTargetTickMillis(), config.getMaxChunksPerTick(), pause);
+            if (task.isDone())
+                plugin.getLogger().info(String.format("Pre-generation of %s finished, %d chunks generated", world.getName(), task.getGenerated()));
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import at.srsyntax.farmingworld.api.farmworld.Border;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Memory mapped surface index of a farm world. The border is sampled every
+ * {@code stride} blocks; every sampled column stores the Y a player can stand at,
+ * or that the column is unsafe. The safe columns are additionally kept in a list,
+ * so a known-safe column can be drawn uniformly in O(1) without touching chunks.
+ * <p>
+ * The file lives next to the world folder and is built while chunks are generated.
+ */
+public class SurfaceIndex {
+
+    public static final String FILE_EXTENSION = ".surface";
+
+    private static final int MAGIC = 0x46575349, VERSION = 1, HEADER_SIZE = 40;
+    private static final short NOT_INDEXED = 0, UNSAFE = 1;
+
+    @FunctionalInterface
+    public interface ColumnScanner {
+        /**
+         * @return the Y a player can stand at, 0 if the column is not safe
+         */
+        int scan(ChunkSnapshot snapshot, int x, int z);
+    }
+
+    private final File file;
+    private final World world;
+    private final MappedByteBuffer buffer;
+    private final int minX, minZ, side, stride, minHeight;
+    private final int gridOffset, safeOffset;
+    private volatile int safeCount, indexedCount;
+
+    private SurfaceIndex(File file, World world, MappedByteBuffer buffer, int minX, int minZ, int side, int stride) {
+        this.file = file;
+        this.world = world;
+        this.buffer = buffer;
+        this.minX = minX;
+        this.minZ = minZ;
+        this.side = side;
+        this.stride = stride;
+        this.minHeight = world.getMinHeight();
+        this.gridOffset = HEADER_SIZE;
+        this.safeOffset = gridOffset + getCells() * 2;
+    }
+
+    public static File getFile(File worldContainer, String worldName) {
+        return new File(worldContainer, worldName + FILE_EXTENSION);
+    }
+
+    public static SurfaceIndex open(File file, World world, Border border, int stride) throws IOException {
+        final int size = border.getSize();
+        final int side = (size + stride - 1) / stride;
+        final int minX = border.getCenterX() - size / 2, minZ = border.getCenterZ() - size / 2;
+        final long length = HEADER_SIZE + (long) side * side * 6;
+        if (length > Integer.MAX_VALUE)
+            throw new IOException("The border of " + world.getName() + " is too large for a surface index with stride " + stride + ".");
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final boolean reuse = channel.size() == length;
+            if (!reuse) channel.truncate(0);
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            final SurfaceIndex index = new SurfaceIndex(file, world, buffer, minX, minZ, side, stride);
+
+            if (reuse && index.hasHeader(border)) {
+                index.safeCount = buffer.getInt(32);
+                index.indexedCount = buffer.getInt(36);
+            } else {
+                index.clear(border, reuse);
+            }
+            return index;
+        }
+    }
+
+    private boolean hasHeader(Border border) {
+        return buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION
+                && buffer.getInt(8) == border.getCenterX() && buffer.getInt(12) == border.getCenterZ()
+                && buffer.getInt(16) == border.getSize() && buffer.getInt(20) == stride
+                && buffer.getInt(24) == minHeight;
+    }
+
+    private void clear(Border border, boolean wipe) {
+        // a freshly created file is already zero filled
+        for (int i = 0; wipe && i < getCells(); i++)
+            buffer.putShort(gridOffset + i * 2, NOT_INDEXED);
+        buffer.putInt(0, MAGIC).putInt(4, VERSION)
+                .putInt(8, border.getCenterX()).putInt(12, border.getCenterZ())
+                .putInt(16, border.getSize()).putInt(20, stride)
+                .putInt(24, minHeight).putInt(28, 0)
+                .putInt(32, 0).putInt(36, 0);
+        safeCount = 0;
+        indexedCount = 0;
+    }
+
+    /**
+     * @return true if the first sampled column of the chunk is already indexed
+     */
+    public boolean isChunkIndexed(int chunkX, int chunkZ) {
+        final int cellX = firstCell(chunkX << 4, minX), cellZ = firstCell(chunkZ << 4, minZ);
+        if (!isCellInChunk(cellX, chunkX, minX) || !isCellInChunk(cellZ, chunkZ, minZ)) return true;
+        return buffer.getShort(gridOffset + (cellZ * side + cellX) * 2) != NOT_INDEXED;
+    }
+
+    public synchronized void index(ChunkSnapshot snapshot, ColumnScanner scanner) {
+        final int chunkX = snapshot.getX(), chunkZ = snapshot.getZ();
+
+        for (int cellZ = firstCell(chunkZ << 4, minZ); isCellInChunk(cellZ, chunkZ, minZ); cellZ++) {
+            for (int cellX = firstCell(chunkX << 4, minX); isCellInChunk(cellX, chunkX, minX); cellX++) {
+                final int cell = cellZ * side + cellX;
+                if (buffer.getShort(gridOffset + cell * 2) != NOT_INDEXED) continue;
+
+                final int y = scanner.scan(snapshot, minX + cellX * stride, minZ + cellZ * stride);
+                if (y == 0) {
+                    buffer.putShort(gridOffset + cell * 2, UNSAFE);
+                } else {
+                    buffer.putShort(gridOffset + cell * 2, (short) (y - minHeight + 2));
+                    buffer.putInt(safeOffset + safeCount * 4, cell);
+                    buffer.putInt(32, ++safeCount);
+                }
+                buffer.putInt(36, ++indexedCount);
+            }
+        }
+    }
+
+    /**
+     * Draws a uniformly distributed column from the known-safe columns.
+     * @return the location or null if no safe column is known
+     */
+    public Location random() {
+        while (true) {
+            final int count = safeCount;
+            if (count == 0) return null;
+
+            final int slot = ThreadLocalRandom.current().nextInt(count);
+            final int cell = buffer.getInt(safeOffset + slot * 4);
+            final short value = buffer.getShort(gridOffset + cell * 2);
+            if (value == UNSAFE) {
+                remove(slot, cell);
+                continue;
+            }
+
+            final int y = value + minHeight - 2;
+            final int x = minX + (cell % side) * stride, z = minZ + (cell / side) * stride;
+            return new Location(world, x + .5D, y, z + .5D);
+        }
+    }
+
+    /**
+     * Marks a sampled column as unsafe, because the world changed since it was indexed.
+     * It is removed from the safe columns the next time it is drawn.
+     */
+    public void evict(int x, int z) {
+        final int offsetX = x - minX, offsetZ = z - minZ;
+        if (offsetX < 0 || offsetZ < 0 || offsetX % stride != 0 || offsetZ % stride != 0) return;
+        final int cellX = offsetX / stride, cellZ = offsetZ / stride;
+        if (cellX >= side || cellZ >= side) return;
+        buffer.putShort(gridOffset + (cellZ * side + cellX) * 2, UNSAFE);
+    }
+
+    // the last safe column takes the slot of the evicted one
+    private synchronized void remove(int slot, int cell) {
+        if (slot >= safeCount || buffer.getInt(safeOffset + slot * 4) != cell) return;
+        buffer.putInt(safeOffset + slot * 4, buffer.getInt(safeOffset + (safeCount - 1) * 4));
+        buffer.putInt(32, --safeCount);
+    }
+
+    /**
+     * @return the part of the sampled columns which is already indexed, from 0 to 1
+     */
+    public double getCoverage() {
+        return indexedCount / (double) getCells();
+    }
+
+    public int getSafeCount() {
+        return safeCount;
+    }
+
+    public int getIndexedCount() {
+        return indexedCount;
+    }
+
+    public int getCells() {
+        return side * side;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public void flush() {
+        buffer.force();
+    }
+
+    private int firstCell(int blockStart, int min) {
+        final int offset = blockStart - min;
+        return offset <= 0 ? 0 : (offset + stride - 1) / stride;
+    }
+
+    private boolean isCellInChunk(int cell, int chunk, int min) {
+        return cell < side && (min + cell * stride) >> 4 == chunk;
+    }
+}
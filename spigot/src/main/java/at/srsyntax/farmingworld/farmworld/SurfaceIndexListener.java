@@ -0,0 +1,64 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import at.srsyntax.farmingworld.FarmingWorldPlugin;
+import lombok.AllArgsConstructor;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+@AllArgsConstructor
+public class SurfaceIndexListener implements Listener {
+
+    private final FarmingWorldPlugin plugin;
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoadEvent(ChunkLoadEvent event) {
+        final String worldName = event.getWorld().getName();
+
+        for (FarmWorldImpl farmWorld : plugin.getPluginConfig().getFarmWorlds()) {
+            // the next world is indexed while it is pregenerated
+            final SurfaceIndex index = matches(farmWorld.getSurfaceIndex(), worldName) ? farmWorld.getSurfaceIndex()
+                    : matches(farmWorld.getNextSurfaceIndex(), worldName) ? farmWorld.getNextSurfaceIndex() : null;
+            if (index == null) continue;
+
+            final Chunk chunk = event.getChunk();
+            if (index.isChunkIndexed(chunk.getX(), chunk.getZ())) return;
+
+            final ChunkSnapshot snapshot = chunk.getChunkSnapshot(true, false, false);
+            final var randomizer = new LocationRandomizerImpl(plugin, plugin.getMaterialClassifier(), plugin.getPluginConfig().getBlacklist(), index.getWorld(), farmWorld.getBorder(), null);
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> index.index(snapshot, randomizer::findSafeY));
+            return;
+        }
+    }
+
+    private static boolean matches(SurfaceIndex index, String worldName) {
+        return index != null && worldName.equals(index.getWorld().getName());
+    }
+}
@@ -0,0 +1,132 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Keeps recently issued RTP targets apart. The targets are hashed into cells of
+ * {@code minDistance} blocks and a new target is only accepted if its cell and the
+ * eight cells around it are free, so two accepted targets are at least
+ * {@code minDistance} apart. Additionally every region file (512x512 blocks)
+ * may only hold {@code regionCap} of the remembered targets.
+ * <p>
+ * If {@link #REJECTION_LIMIT} targets in a row are rejected the oldest target is
+ * forgotten, so a crowded border frees up again as teleports keep coming in.
+ */
+public class TargetDispersion {
+
+    static final int REJECTION_LIMIT = 8;
+
+    private final int cellSize, regionCap;
+    private final long[] recent;
+    private int head, size, rejections;
+    private final Map<Long, Integer> cells = new HashMap<>(), regions = new HashMap<>();
+
+    public TargetDispersion(int minDistance, int regionCap, int memory) {
+        this.cellSize = Math.max(minDistance, 1);
+        this.regionCap = Math.max(regionCap, 1);
+        this.recent = new long[Math.max(memory, 1)];
+    }
+
+    /**
+     * Creates a dispersion which fits into the border. The minimum distance is lowered
+     * until the border could hold four times the remembered targets, because random
+     * targets never pack tightly, and the region cap is raised until the regions could
+     * hold twice of them.
+     */
+    public static TargetDispersion create(int borderSize, int minDistance, int regionCap, int memory) {
+        final int perSide = (int) Math.ceil(2 * Math.sqrt(Math.max(memory, 1)));
+        final int regionsPerSide = Math.max(1, (borderSize + 511) >> 9);
+        final int regionCount = regionsPerSide * regionsPerSide;
+        return new TargetDispersion(
+                Math.min(minDistance, borderSize / perSide / 2),
+                Math.max(regionCap, (2 * memory + regionCount - 1) / regionCount),
+                memory
+        );
+    }
+
+    /**
+     * Remembers the target if it keeps the distance to the other targets.
+     * @return false if the target is too close to a recent target or its region is full
+     */
+    public synchronized boolean tryAdd(int x, int z) {
+        final int cellX = Math.floorDiv(x, cellSize), cellZ = Math.floorDiv(z, cellSize);
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                if (cells.containsKey(key(cellX + dx, cellZ + dz))) return reject();
+            }
+        }
+
+        final long region = key(x >> 9, z >> 9);
+        if (regions.getOrDefault(region, 0) >= regionCap) return reject();
+
+        rejections = 0;
+        if (size == recent.length) evict();
+        recent[(head + size++) % recent.length] = key(x, z);
+        cells.merge(key(cellX, cellZ), 1, Integer::sum);
+        regions.merge(region, 1, Integer::sum);
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+        rejections = 0;
+        cells.clear();
+        regions.clear();
+    }
+
+    private boolean reject() {
+        if (++rejections >= REJECTION_LIMIT && size > 0) {
+            evict();
+            rejections = 0;
+        }
+        return false;
+    }
+
+    private void evict() {
+        final long position = recent[head];
+        head = (head + 1) % recent.length;
+        size--;
+
+        final int x = (int) (position >> 32), z = (int) position;
+        decrement(cells, key(Math.floorDiv(x, cellSize), Math.floorDiv(z, cellSize)));
+        decrement(regions, key(x >> 9, z >> 9));
+    }
+
+    private static void decrement(Map<Long, Integer> map, long key) {
+        map.computeIfPresent(key, (ignored, count) -> count <= 1 ? null : count - 1);
+    }
+
+    private static long key(int x, int z) {
+        return (long) x << 32 | z & 0xFFFFFFFFL;
+    }
+}
@@ -0,0 +1,74 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import org.bukkit.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Maps the current, next and old worlds of all farm worlds to their farm world.
+ * Worlds are looked up by UID, the name is used for worlds which were indexed
+ * with a different UID (e.g. a world folder which was replaced).
+ */
+public class WorldIndex {
+
+    private final Map<UUID, FarmWorldImpl> byUid = new ConcurrentHashMap<>();
+    private final Map<String, FarmWorldImpl> byName = new ConcurrentHashMap<>();
+
+    public void put(@Nullable World world, FarmWorldImpl farmWorld) {
+        if (world == null) return;
+        byUid.put(world.getUID(), farmWorld);
+        byName.put(world.getName().toLowerCase(), farmWorld);
+    }
+
+    public void remove(@Nullable World world) {
+        if (world == null) return;
+        byUid.remove(world.getUID());
+        remove(world.getName());
+    }
+
+    public void remove(@Nullable String worldName) {
+        if (worldName != null) byName.remove(worldName.toLowerCase());
+    }
+
+    public void removeAll(FarmWorldImpl farmWorld) {
+        byUid.values().removeIf(farmWorld::equals);
+        byName.values().removeIf(farmWorld::equals);
+    }
+
+    public @Nullable FarmWorldImpl get(World world) {
+        final FarmWorldImpl farmWorld = byUid.get(world.getUID());
+        return farmWorld != null ? farmWorld : byName.get(world.getName().toLowerCase());
+    }
+
+    public void clear() {
+        byUid.clear();
+        byName.clear();
+    }
+}
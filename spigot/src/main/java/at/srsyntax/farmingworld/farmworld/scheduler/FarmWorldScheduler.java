@@ -1,12 +1,12 @@
 package at.srsyntax.farmingworld.farmworld.scheduler;
 
 import at.srsyntax.farmingworld.FarmingWorldPlugin;
-import at.srsyntax.farmingworld.api.API;
 import at.srsyntax.farmingworld.api.farmworld.FarmWorld;
 import org.bukkit.Bukkit;
 
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.concurrent.TimeUnit;
 
 /*
@@ -32,50 +32,103 @@ import java.util.concurrent.TimeUnit;
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
+
+/**
+ * Wakes every farm world exactly when it has work: at its reset, when its next
+ * world is due and when signs and displays need a refresh. The deadlines are kept
+ * in a priority queue and only one Bukkit task is armed for the earliest one.
+ */
 public class FarmWorldScheduler implements Runnable {
 
-    private final API api;
-    protected final FarmingWorldPlugin plugin;
+    private static final long REFRESH_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+    private static final long REFRESH_INTERVAL_BEFORE_RESET = TimeUnit.SECONDS.toMillis(1);
+    private static final long RESET_SOON = TimeUnit.MINUTES.toMillis(2);
 
-    protected final List<FarmWorld> updaterList = new CopyOnWriteArrayList<>();
+    protected final FarmingWorldPlugin plugin;
     private final FarmWorldUpdater updater;
+    private final PriorityQueue<Wakeup> queue = new PriorityQueue<>();
+    // the farm world equals depends on mutable data, so the map compares identity
+    private final Map<FarmWorld, Wakeup> scheduled = new IdentityHashMap<>();
+    private int taskId = -1;
+    private long armedDeadline;
 
-    public FarmWorldScheduler(API api, FarmingWorldPlugin plugin) {
-        this.api = api;
+    public FarmWorldScheduler(FarmingWorldPlugin plugin) {
         this.plugin = plugin;
         this.updater = new FarmWorldUpdater(this);
     }
 
+    /**
+     * Adds the farm world or moves its wakeup to its current deadline.
+     */
+    public void schedule(FarmWorld farmWorld) {
+        final Wakeup wakeup = new Wakeup(getDeadline(farmWorld), farmWorld);
+        // a replaced wakeup stays in the queue and is skipped when it is polled
+        scheduled.put(farmWorld, wakeup);
+        queue.add(wakeup);
+        arm();
+    }
+
     @Override
     public void run() {
-        for (FarmWorld farmWorld : api.getFarmWorlds()) {
-            if (needSecondUpdater(farmWorld) || updaterList.contains(farmWorld)) {
-                addUpdater(farmWorld);
-            } else {
-                updater.update(farmWorld, false);
+        taskId = -1;
+        final long now = System.currentTimeMillis();
+
+        Wakeup wakeup;
+        while ((wakeup = queue.peek()) != null && wakeup.deadline <= now) {
+            queue.poll();
+            final FarmWorld farmWorld = wakeup.farmWorld;
+            if (scheduled.get(farmWorld) != wakeup) continue;
+            if (!farmWorld.isActive()) {
+                scheduled.remove(farmWorld);
+                continue;
             }
+
+            updater.update(farmWorld);
+            final Wakeup next = new Wakeup(getDeadline(farmWorld), farmWorld);
+            scheduled.put(farmWorld, next);
+            queue.add(next);
         }
+        arm();
     }
 
-    private boolean needSecondUpdater(FarmWorld farmWorld) {
-        return farmWorld.getResetDate() - System.currentTimeMillis() <= TimeUnit.MINUTES.toMillis(2);
+    private long getDeadline(FarmWorld farmWorld) {
+        final long now = System.currentTimeMillis(), reset = farmWorld.getResetDate();
+        // the orchestrator reschedules the farm world when its reset starts, until then signs only need the usual refresh
+        if (reset <= now && plugin.getResetOrchestrator().isRequested(farmWorld))
+            return now + REFRESH_INTERVAL_BEFORE_RESET;
+        long deadline = now + (reset - now <= RESET_SOON ? REFRESH_INTERVAL_BEFORE_RESET : REFRESH_INTERVAL);
+        deadline = Math.min(deadline, reset);
+        final long nextWorld = reset - TimeUnit.MINUTES.toMillis(1);
+        if (nextWorld > now && !farmWorld.hasNext() && !plugin.getPluginConfig().getNextWorld().isEnabled())
+            deadline = Math.min(deadline, nextWorld);
+        // a deadline in the past means the work is due right now, but never loop within one run
+        return Math.max(deadline, now + 1L);
     }
 
-    private void addUpdater(FarmWorld farmWorld) {
-        if (updaterList.contains(farmWorld)) return;
-        updaterList.add(farmWorld);
-        createScheduler();
+    private void arm() {
+        final Wakeup head = queue.peek();
+        if (head == null) {
+            cancel();
+            return;
+        }
+        if (taskId != -1 && armedDeadline == head.deadline) return;
+
+        cancel();
+        final long ticks = Math.max(1L, (head.deadline - System.currentTimeMillis() + 49L) / 50L);
+        armedDeadline = head.deadline;
+        taskId = Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, this, ticks);
     }
 
-    private void createScheduler() {
-        if (updater.taskId != -1) return;
-        updater.taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, updater, 20L, 20L);
+    private void cancel() {
+        if (taskId == -1) return;
+        Bukkit.getScheduler().cancelTask(taskId);
+        taskId = -1;
     }
 
-    protected void removeUpdater(FarmWorld farmWorld) {
-        updaterList.remove(farmWorld);
-        if (!updaterList.isEmpty()) return;
-        Bukkit.getScheduler().cancelTask(updater.taskId);
-        updater.taskId = -1;
+    private record Wakeup(long deadline, FarmWorld farmWorld) implements Comparable<Wakeup> {
+        @Override
+        public int compareTo(Wakeup other) {
+            return Long.compare(deadline, other.deadline);
+        }
     }
 }
@@ -1,6 +1,7 @@
 package at.srsyntax.farmingworld.farmworld.scheduler;
 
 import at.srsyntax.farmingworld.api.farmworld.FarmWorld;
+import at.srsyntax.farmingworld.farmworld.FarmWorldImpl;
 
 /*
  * MIT License
@@ -25,41 +26,35 @@ import at.srsyntax.farmingworld.api.farmworld.FarmWorld;
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
-public class FarmWorldUpdater implements Runnable {
+/**
+ * Does the periodic work of one farm world: reset, next world, signs and display.
+ * When it runs is decided by the {@link FarmWorldScheduler}.
+ */
+public class FarmWorldUpdater {
     private final FarmWorldScheduler scheduler;
-    protected int taskId = -1;
 
     public FarmWorldUpdater(FarmWorldScheduler scheduler) {
         this.scheduler = scheduler;
     }
 
-    @Override
-    public void run() {
-        for (FarmWorld farmWorld : scheduler.updaterList) {
-            update(farmWorld, true);
-        }
-    }
-
-    public void update(FarmWorld farmWorld, boolean everySecond) {
-        if (!farmWorld.isActive()) {
-            removeUpdater(farmWorld, everySecond);
-            return;
-        }
-
+    public void update(FarmWorld farmWorld) {
         if (farmWorld.needReset()) {
-            farmWorld.next();
-            removeUpdater(farmWorld, everySecond);
-        } else if (farmWorld.needNextWorld())  {
-            scheduler.plugin.getLogger().info("Create new world for " + farmWorld.getName());
-            farmWorld.newNextWorld(farmWorld.generateWorld());
+            scheduler.plugin.getResetOrchestrator().request(farmWorld);
+        } else if (farmWorld.needNextWorld() && !scheduler.plugin.getPluginConfig().getNextWorld().isEnabled()) {
+            // with the pipeline enabled the NextWorldPipeline stages the next world
+            if (farmWorld instanceof FarmWorldImpl farmWorldImpl) {
+                if (!farmWorldImpl.isGeneratingNextWorld()) {
+                    scheduler.plugin.getLogger().info("Create new world for " + farmWorld.getName());
+                    farmWorldImpl.generateNextWorldAsync();
+                }
+            } else {
+                scheduler.plugin.getLogger().info("Create new world for " + farmWorld.getName());
+                farmWorld.newNextWorld(farmWorld.generateWorld());
+            }
         }
 
         farmWorld.updateSigns();
         final var displayer = scheduler.plugin.getDisplayRegistry().getDisplayer(farmWorld);
         if (displayer != null) displayer.display();
     }
-
-    private void removeUpdater(FarmWorld farmWorld, boolean everySecond) {
-        if (everySecond) scheduler.removeUpdater(farmWorld);
-    }
 }
@@ -0,0 +1,110 @@
+package at.srsyntax.farmingworld.farmworld.scheduler;
+
+import at.srsyntax.farmingworld.FarmingWorldPlugin;
+import at.srsyntax.farmingworld.config.PluginConfig;
+import at.srsyntax.farmingworld.farmworld.FarmWorldImpl;
+import at.srsyntax.farmingworld.farmworld.FarmWorldLoader;
+import at.srsyntax.farmingworld.farmworld.LocationSearchException;
+import at.srsyntax.farmingworld.util.TickBudgetExecutor;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+public class LocationPoolRefiller implements Runnable {
+
+    private final FarmingWorldPlugin plugin;
+    private final TickBudgetExecutor executor;
+    private int searches, ticks;
+
+    public LocationPoolRefiller(FarmingWorldPlugin plugin) {
+        this.plugin = plugin;
+        this.executor = new TickBudgetExecutor(plugin.getPluginConfig().getLocationPool().getTickBudgetMillis());
+    }
+
+    @Override
+    public void run() {
+        final PluginConfig.LocationPoolConfig config = plugin.getPluginConfig().getLocationPool();
+        final boolean everySecond = ++ticks % 20 == 0;
+
+        for (FarmWorldImpl farmWorld : plugin.getPluginConfig().getFarmWorlds()) {
+            if (!farmWorld.isEnabled() || farmWorld.getData().getCurrentWorldName() == null) {
+                farmWorld.failLocationRequests(new IllegalStateException(farmWorld.getName() + " is not enabled."));
+                continue;
+            }
+
+            if (everySecond) {
+                resizePool(farmWorld);
+                updateLeases(farmWorld);
+            }
+            for (int missing = getMissing(farmWorld, config); missing > 0 && searches < config.getMaxSearches(); missing--)
+                search(farmWorld);
+        }
+
+        executor.run();
+    }
+
+    private int getMissing(FarmWorldImpl farmWorld, PluginConfig.LocationPoolConfig config) {
+        final int size = farmWorld.getCachedLocations();
+        final int max = farmWorld.getPoolTarget();
+
+        if (max > 0 && size < max && size <= config.getLowWatermark())
+            farmWorld.setRefilling(true);
+        if (farmWorld.isRefilling() && size + farmWorld.getPendingSearches() >= max)
+            farmWorld.setRefilling(false);
+
+        final int wanted = farmWorld.getLocationRequests().size() + (farmWorld.isRefilling() ? max - size : 0);
+        return wanted - farmWorld.getPendingSearches();
+    }
+
+    private void resizePool(FarmWorldImpl farmWorld) {
+        final PluginConfig.AdaptivePoolConfig config = plugin.getPluginConfig().getAdaptivePool();
+        if (!config.isEnabled()) return;
+        farmWorld.getPoolSizeController().update(TimeUnit.SECONDS.toMillis(config.getSampleSeconds()), config.getAlpha());
+        farmWorld.trimLocationPool(farmWorld.getPoolTarget());
+    }
+
+    private void updateLeases(FarmWorldImpl farmWorld) {
+        final PluginConfig.ChunkLeaseConfig config = plugin.getPluginConfig().getChunkLease();
+        if (!config.isEnabled()) {
+            farmWorld.getChunkLeases().releaseAll();
+            return;
+        }
+        farmWorld.getChunkLeases().update(farmWorld.getWorld(), farmWorld.getLocationPool(), config.getWarm(),
+                TimeUnit.SECONDS.toMillis(config.getTtlSeconds()), executor);
+    }
+
+    private void search(FarmWorldImpl farmWorld) {
+        searches++;
+        farmWorld.setPendingSearches(farmWorld.getPendingSearches() + 1);
+
+        new FarmWorldLoader(plugin, farmWorld).generateLocationAsync(executor).whenCompleteAsync((location, throwable) -> {
+            searches--;
+            farmWorld.setPendingSearches(farmWorld.getPendingSearches() - 1);
+            // a used up search budget is already counted in the search statistics
+            if (throwable != null && !(throwable.getCause() instanceof LocationSearchException))
+                plugin.getLogger().warning("Location search for " + farmWorld.getName() + " failed: " + throwable.getMessage());
+        }, executor);
+    }
+}
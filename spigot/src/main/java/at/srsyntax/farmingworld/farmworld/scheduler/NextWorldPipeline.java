@@ -0,0 +1,190 @@
+package at.srsyntax.farmingworld.farmworld.scheduler;
+
+import at.srsyntax.farmingworld.FarmingWorldPlugin;
+import at.srsyntax.farmingworld.api.farmworld.Border;
+import at.srsyntax.farmingworld.config.PluginConfig;
+import at.srsyntax.farmingworld.farmworld.*;
+import at.srsyntax.farmingworld.util.TickBudgetExecutor;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.io.File;
+import java.util.concurrent.Executor;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Prepares the next world of every farm world ahead of its reset. Each farm world
+ * advances at most one stage per second: the template is copied, the world is
+ * created, border and spawn are set, the chunks around the center are generated
+ * by the {@link PregenManager} and the location pool is filled. The stage is
+ * saved after every step, so the reset itself only swaps the prepared world in.
+ */
+public class NextWorldPipeline implements Runnable {
+
+    private static final int MAX_FAILED_SEARCHES = 32;
+
+    private final FarmingWorldPlugin plugin;
+    private final TickBudgetExecutor executor;
+    private final Executor mainThread;
+    private int ticks;
+
+    public NextWorldPipeline(FarmingWorldPlugin plugin) {
+        this.plugin = plugin;
+        this.executor = new TickBudgetExecutor(plugin.getPluginConfig().getLocationPool().getTickBudgetMillis());
+        this.mainThread = runnable -> Bukkit.getScheduler().runTask(plugin, runnable);
+    }
+
+    @Override
+    public void run() {
+        final PluginConfig.NextWorldConfig config = plugin.getPluginConfig().getNextWorld();
+        if (config.isEnabled() && ++ticks % 20 == 0) {
+            for (FarmWorldImpl farmWorld : plugin.getPluginConfig().getFarmWorlds()) {
+                if (!farmWorld.isEnabled() || farmWorld.getNextWorldProgress().isBusy()) continue;
+                advance(farmWorld, config);
+            }
+        }
+        executor.run();
+    }
+
+    private void advance(FarmWorldImpl farmWorld, PluginConfig.NextWorldConfig config) {
+        switch (farmWorld.getData().getNextStage()) {
+            case NONE -> {
+                if (farmWorld.needStaging(config.getLeadMinutes())) copyTemplate(farmWorld);
+            }
+            case TEMPLATE_COPIED -> createWorld(farmWorld);
+            case WORLD_CREATED -> prepareWorld(farmWorld);
+            case PREPARED -> pregenerate(farmWorld, config);
+            case PREGENERATED -> fillPool(farmWorld);
+            case POOL_FILLED -> {
+                plugin.getLogger().info("Next world " + farmWorld.getData().getNextWorldName() + " for " + farmWorld.getName() + " is ready.");
+                setStage(farmWorld, NextWorldStage.READY);
+            }
+            case READY -> {}
+        }
+    }
+
+    private void copyTemplate(FarmWorldImpl farmWorld) {
+        final String worldName = FarmingWorldPlugin.getApi().generateRandomName(farmWorld);
+        plugin.getLogger().info("Stage next world " + worldName + " for " + farmWorld.getName());
+        if (!farmWorld.hasTemplate()) {
+            farmWorld.getData().setNextWorldName(worldName);
+            setStage(farmWorld, NextWorldStage.TEMPLATE_COPIED);
+            return;
+        }
+
+        final long created = farmWorld.getData().getCreated();
+        final File folder = new File(worldName);
+        farmWorld.getNextWorldProgress().setBusy(true);
+        farmWorld.randomTemplate().copyAsync(folder, plugin.getIoExecutor()).whenCompleteAsync((ignored, throwable) -> {
+            farmWorld.getNextWorldProgress().setBusy(false);
+            if (throwable != null) {
+                plugin.getLogger().severe("Template for " + farmWorld.getName() + " could not be copied: " + throwable.getMessage());
+                plugin.getWorldTrash().delete(folder);
+                return;
+            }
+            // the farm world was reset or disabled while copying
+            if (created != farmWorld.getData().getCreated() || farmWorld.hasNext() || !farmWorld.isEnabled()) {
+                plugin.getWorldTrash().delete(folder);
+                return;
+            }
+            farmWorld.getData().setNextWorldName(worldName);
+            setStage(farmWorld, NextWorldStage.TEMPLATE_COPIED);
+        }, mainThread);
+    }
+
+    private void createWorld(FarmWorldImpl farmWorld) {
+        final World world = new FarmWorldLoader(plugin, farmWorld).generateWorld(farmWorld.getData().getNextWorldName());
+        farmWorld.newNextWorld(world);
+        farmWorld.save(plugin);
+    }
+
+    private void prepareWorld(FarmWorldImpl farmWorld) {
+        final World world = farmWorld.getNextWorld();
+        if (world == null) {
+            setStage(farmWorld, NextWorldStage.TEMPLATE_COPIED);
+            return;
+        }
+
+        new FarmWorldLoader(plugin, farmWorld).setBorder(world);
+        world.setKeepSpawnInMemory(false);
+        final Border border = farmWorld.getBorder();
+        if (border != null) {
+            final int x = border.getCenterX(), z = border.getCenterZ();
+            world.setSpawnLocation(x, world.getHighestBlockYAt(x, z) + 1, z);
+        }
+        setStage(farmWorld, NextWorldStage.PREPARED);
+    }
+
+    private void pregenerate(FarmWorldImpl farmWorld, PluginConfig.NextWorldConfig config) {
+        final World world = farmWorld.getNextWorld();
+        if (world == null) {
+            setStage(farmWorld, NextWorldStage.TEMPLATE_COPIED);
+            return;
+        }
+
+        final PregenManager pregenManager = plugin.getPregenManager();
+        final ChunkPregenerator task = pregenManager.get(world);
+        if (task == null) pregenManager.start(world, farmWorld.getBorder(), config.getPregenRadius());
+        else if (task.isDone()) setStage(farmWorld, NextWorldStage.PREGENERATED);
+    }
+
+    private void fillPool(FarmWorldImpl farmWorld) {
+        final World world = farmWorld.getNextWorld();
+        if (world == null) {
+            setStage(farmWorld, NextWorldStage.TEMPLATE_COPIED);
+            return;
+        }
+
+        final NextWorldProgress progress = farmWorld.getNextWorldProgress();
+        final LocationPool pool = progress.getPool(world.getName(), farmWorld.getMaxLocations());
+        if (pool.size() >= farmWorld.getMaxLocations() || progress.getFailedSearches() >= MAX_FAILED_SEARCHES) {
+            setStage(farmWorld, NextWorldStage.POOL_FILLED);
+            return;
+        }
+
+        final var randomizer = new LocationRandomizerImpl(plugin, plugin.getMaterialClassifier(), plugin.getPluginConfig().getBlacklist(),
+                world, farmWorld.getBorder(), null, farmWorld.getNextSurfaceIndex(), null);
+        progress.setBusy(true);
+        // the search completes on a snapshot worker, the pool is only touched on the main thread
+        randomizer.randomAsync(executor, false).whenCompleteAsync((location, throwable) -> {
+            progress.setBusy(false);
+            if (throwable != null) {
+                progress.setFailedSearches(progress.getFailedSearches() + 1);
+                return;
+            }
+            // the next world was swapped in or deleted during the search
+            if (progress.getPool() != pool) return;
+            final long position = LocationPool.pack(location);
+            pool.push(position);
+            plugin.getDatabase().getLocationRepository().save(farmWorld, position, location);
+        }, mainThread);
+    }
+
+    private void setStage(FarmWorldImpl farmWorld, NextWorldStage stage) {
+        farmWorld.getData().setNextStage(stage);
+        farmWorld.save(plugin);
+    }
+}
@@ -0,0 +1,97 @@
+package at.srsyntax.farmingworld.farmworld.scheduler;
+
+import at.srsyntax.farmingworld.FarmingWorldPlugin;
+import at.srsyntax.farmingworld.api.farmworld.FarmWorld;
+import at.srsyntax.farmingworld.config.PluginConfig;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Runs farm world resets one after another. At most {@code maxConcurrent} resets
+ * are in progress at a time, consecutive resets start at least {@code minGapSeconds}
+ * apart and nothing is reset during the first {@code startupDelaySeconds}. A reset
+ * is in progress until the players have left the old world.
+ */
+public class ResetOrchestrator implements Runnable {
+
+    private final FarmingWorldPlugin plugin;
+    private final Deque<FarmWorld> waiting = new ArrayDeque<>();
+    // farm world -> start of its reset, compared by identity since equals depends on mutable data
+    private final Map<FarmWorld, Long> running = new IdentityHashMap<>();
+    private final long readyAt;
+    private long lastStart;
+
+    public ResetOrchestrator(FarmingWorldPlugin plugin) {
+        this.plugin = plugin;
+        this.readyAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(plugin.getPluginConfig().getReset().getStartupDelaySeconds());
+    }
+
+    /**
+     * Queues a reset, a farm world which is already queued or resetting is ignored.
+     */
+    public void request(FarmWorld farmWorld) {
+        if (!isRequested(farmWorld)) waiting.add(farmWorld);
+    }
+
+    public boolean isRequested(FarmWorld farmWorld) {
+        if (running.containsKey(farmWorld)) return true;
+        for (FarmWorld queued : waiting) {
+            if (queued == farmWorld) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Called when the old world of a reset is empty.
+     */
+    public void finished(FarmWorld farmWorld) {
+        running.remove(farmWorld);
+    }
+
+    @Override
+    public void run() {
+        final PluginConfig.ResetConfig config = plugin.getPluginConfig().getReset();
+        final long now = System.currentTimeMillis();
+        // a mass teleport never takes longer than its timeout, don't block forever if a callback got lost
+        final long expired = now - TimeUnit.SECONDS.toMillis(plugin.getPluginConfig().getMassTeleport().getTimeoutSeconds() * 2L);
+        running.values().removeIf(start -> start < expired);
+
+        if (now < readyAt || now - lastStart < TimeUnit.SECONDS.toMillis(config.getMinGapSeconds())) return;
+        while (!waiting.isEmpty() && running.size() < Math.max(1, config.getMaxConcurrent())) {
+            final FarmWorld farmWorld = waiting.poll();
+            if (!farmWorld.isActive() || !farmWorld.needReset()) continue;
+
+            plugin.getLogger().info("Reset " + farmWorld.getName());
+            running.put(farmWorld, now);
+            lastStart = now;
+            farmWorld.next();
+            plugin.getFarmWorldScheduler().schedule(farmWorld);
+            if (config.getMinGapSeconds() > 0) return;
+        }
+    }
+}
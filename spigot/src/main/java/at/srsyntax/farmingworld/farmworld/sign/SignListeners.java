@@ -7,6 +7,7 @@ import at.srsyntax.farmingworld.api.event.farmworld.player.FarmWorldPlayerLeavin
 import at.srsyntax.farmingworld.api.farmworld.sign.SignCache;
 import at.srsyntax.farmingworld.api.message.Message;
 import at.srsyntax.farmingworld.config.MessageConfig;
+import at.srsyntax.farmingworld.util.MaterialClassifier;
 import lombok.AllArgsConstructor;
 import org.bukkit.GameMode;
 import org.bukkit.block.Block;
@@ -120,6 +121,6 @@ public class SignListeners implements Listener {
     }
 
     private boolean isSign(Block block) {
-        return block != null && block.getType().name().endsWith("_SIGN");
+        return block != null && MaterialClassifier.isSign(block.getType());
     }
 }
@@ -1,20 +1,14 @@
 package at.srsyntax.farmingworld.util;
 
-import at.srsyntax.farmingworld.api.API;
-import at.srsyntax.farmingworld.api.farmworld.FarmWorld;
+import at.srsyntax.farmingworld.FarmingWorldPlugin;
+import at.srsyntax.farmingworld.farmworld.FarmWorldImpl;
+import at.srsyntax.farmingworld.farmworld.FarmWorldLoader;
 import lombok.AllArgsConstructor;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.attribute.BasicFileAttributes;
-import java.util.Objects;
-import java.util.concurrent.TimeUnit;
-
 /*
  * MIT License
  *
- * Copyright (c) 2022-2023 Marcel Haberl
+ * Copyright (c) 2022-2024 Marcel Haberl
  *
  * Permission is hereby granted, free of charge, to any person obtaining a copy
  * of this software and associated documentation files (the "Software"), to deal
@@ -34,42 +28,24 @@ import java.util.concurrent.TimeUnit;
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
+
+/**
+ * Removes the chunks of disabled farm worlds which were not saved within the
+ * chunk delete period. The server keeps the region files of loaded worlds open
+ * and writes their headers back, so only worlds which are not loaded are pruned.
+ * The files are edited on the I/O executor, see {@link FarmWorldLoader#pruneRegions(String)}.
+ */
 @AllArgsConstructor
 public class ChunkDeleterRunnable implements Runnable {
 
-    private final API api;
-    private final int time;
+    private final FarmingWorldPlugin plugin;
 
     @Override
     public void run() {
-        for (FarmWorld farmWorld : api.getFarmWorlds()) {
-            final var world = farmWorld.getWorld();
-            if (world == null) continue;
-
-            final File regionFolder = new File(world.getWorldFolder(), "region");
-            if (!regionFolder.exists()) continue;
-
-            for (File file : Objects.requireNonNull(regionFolder.listFiles())) {
-                try {
-                    if (needToDelete(file))
-                        file.delete();
-                } catch (Exception exception) {
-                    exception.printStackTrace();
-                }
-            }
+        for (FarmWorldImpl farmWorld : plugin.getPluginConfig().getFarmWorlds()) {
+            final String worldName = farmWorld.getData().getCurrentWorldName();
+            if (!farmWorld.isLoaded() || farmWorld.isEnabled() || worldName == null) continue;
+            new FarmWorldLoader(plugin, farmWorld).pruneRegions(worldName);
         }
     }
-
-    private boolean needToDelete(File file) throws IOException {
-        if (file == null) return false;
-        if (!file.exists()) return false;
-
-        final var attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
-
-        final long lastModified, currentTime;
-        lastModified = attributes.lastModifiedTime().toMillis();
-        currentTime = System.currentTimeMillis();
-
-        return lastModified + TimeUnit.HOURS.toMillis(time) <= currentTime;
-    }
 }
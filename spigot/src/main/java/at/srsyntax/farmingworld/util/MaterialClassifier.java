@@ -0,0 +1,114 @@
+package at.srsyntax.farmingworld.util;
+
+import org.bukkit.Material;
+
+import java.util.Collection;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Lookup table for block checks in hot paths. Every category is a bitset over
+ * {@link Material#ordinal()}, so a check is one array access instead of a list
+ * scan or a string comparison.
+ */
+public class MaterialClassifier {
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final String[] HAZARDS = {
+            "LAVA", "FIRE", "SOUL_FIRE", "MAGMA_BLOCK", "CACTUS", "CAMPFIRE", "SOUL_CAMPFIRE",
+            "SWEET_BERRY_BUSH", "WITHER_ROSE", "POWDER_SNOW", "POINTED_DRIPSTONE", "COBWEB",
+            "NETHER_PORTAL", "END_PORTAL", "END_GATEWAY"
+    };
+    private static final String[] LIQUIDS = {
+            "WATER", "LAVA", "BUBBLE_COLUMN", "KELP", "KELP_PLANT", "SEAGRASS", "TALL_SEAGRASS"
+    };
+
+    private static final long[] LIQUID = new long[words()], SIGN = new long[words()], HAZARD = new long[words()],
+            SOLID_FLOOR = new long[words()];
+
+    static {
+        for (String name : LIQUIDS) set(LIQUID, Material.getMaterial(name));
+        for (String name : HAZARDS) set(HAZARD, Material.getMaterial(name));
+        for (Material material : MATERIALS) {
+            if (!material.isLegacy() && material.name().endsWith("_SIGN"))
+                set(SIGN, material);
+            // full blocks only, slabs, leaves, carpets and scaffolding are not occluding
+            if (!material.isLegacy() && material.isBlock() && material.isSolid() && material.isOccluding())
+                set(SOLID_FLOOR, material);
+        }
+    }
+
+    private final long[] safeFloor = new long[words()], safeToStandIn = new long[words()];
+
+    public MaterialClassifier(Collection<Material> blacklist) {
+        final long[] blacklisted = new long[words()];
+        if (blacklist != null) blacklist.forEach(material -> set(blacklisted, material));
+
+        for (Material material : MATERIALS) {
+            if (material.isLegacy() || !material.isBlock()) continue;
+            final boolean unsafe = get(HAZARD, material) || get(LIQUID, material);
+
+            if (!unsafe && !get(blacklisted, material) && get(SOLID_FLOOR, material))
+                set(safeFloor, material);
+            if (!unsafe && (material.isAir() || !material.isSolid()))
+                set(safeToStandIn, material);
+        }
+    }
+
+    /**
+     * @return true if the material is a full block a player can stand on top of
+     */
+    public boolean isSafeFloor(Material material) {
+        return get(safeFloor, material);
+    }
+
+    /**
+     * @return true if the feet or the head of a player can be inside the material
+     */
+    public boolean isSafeToStandIn(Material material) {
+        return get(safeToStandIn, material);
+    }
+
+    public static boolean isLiquid(Material material) {
+        return get(LIQUID, material);
+    }
+
+    public static boolean isSign(Material material) {
+        return get(SIGN, material);
+    }
+
+    private static int words() {
+        return (MATERIALS.length + 63) >>> 6;
+    }
+
+    private static void set(long[] bits, Material material) {
+        if (material == null) return;
+        bits[material.ordinal() >>> 6] |= 1L << material.ordinal();
+    }
+
+    private static boolean get(long[] bits, Material material) {
+        return material != null && (bits[material.ordinal() >>> 6] & 1L << material.ordinal()) != 0;
+    }
+}
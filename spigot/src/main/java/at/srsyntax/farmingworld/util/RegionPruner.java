@@ -0,0 +1,128 @@
+package at.srsyntax.farmingworld.util;
+
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Removes single chunks from region files which were not saved for a while. A
+ * region file starts with 1024 location entries (3 byte sector offset, 1 byte
+ * sector count) followed by 1024 save timestamps in seconds. Stale chunks are
+ * removed by clearing both entries, the file is cut behind the last used sector
+ * and deleted once it holds no chunk anymore. Entity and poi files of the same
+ * region lose the same chunks, otherwise old entities would end up in the newly
+ * generated terrain.
+ * <p>
+ * The server keeps a copy of the header of every open region file and writes it
+ * back with each chunk, so only worlds which are not loaded may be pruned.
+ */
+@Getter
+public class RegionPruner {
+
+    private static final int SECTOR = 4096, CHUNKS = 1024, HEADER = 2 * SECTOR;
+    private static final String[] COMPANIONS = {"entities", "poi"};
+
+    private int prunedChunks, deletedFiles;
+    private long freedBytes;
+
+    /**
+     * @param worldFolder the folder of a world which is not loaded
+     * @param createdSeconds chunks saved before the world was created came from its template and are kept
+     * @param cutoffSeconds chunks saved before this epoch second are removed
+     */
+    public void prune(File worldFolder, long createdSeconds, long cutoffSeconds) {
+        final File[] files = new File(worldFolder, "region").listFiles((dir, name) -> name.endsWith(".mca"));
+        if (files == null) return;
+
+        for (File file : files) {
+            try {
+                final BitSet stale = pruneRegion(file, createdSeconds, cutoffSeconds, null);
+                if (stale == null || stale.isEmpty()) continue;
+
+                prunedChunks += stale.cardinality();
+                for (String companion : COMPANIONS)
+                    pruneRegion(new File(new File(worldFolder, companion), file.getName()), createdSeconds, cutoffSeconds, stale);
+            } catch (IOException exception) {
+                throw new IllegalStateException("Could not prune " + file.getName(), exception);
+            }
+        }
+    }
+
+    /**
+     * @param chunks the chunks to remove, null to remove the chunks saved before the cutoff
+     * @return the removed chunks
+     */
+    private BitSet pruneRegion(File file, long createdSeconds, long cutoffSeconds, BitSet chunks) throws IOException {
+        if (!file.isFile() || file.length() < HEADER) return null;
+
+        final BitSet removed = new BitSet(CHUNKS);
+        long usedSectors = 2L;
+        boolean empty = true;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+            for (int i = 0; i < CHUNKS; i++) {
+                final int location = header.getInt(i * 4);
+                if (location == 0) continue;
+
+                final long saved = Integer.toUnsignedLong(header.getInt(SECTOR + i * 4));
+                if (chunks != null ? chunks.get(i) : saved >= createdSeconds && saved < cutoffSeconds) {
+                    header.putInt(i * 4, 0);
+                    header.putInt(SECTOR + i * 4, 0);
+                    removed.set(i);
+                } else {
+                    empty = false;
+                    usedSectors = Math.max(usedSectors, (location >>> 8) + (location & 0xFF));
+                }
+            }
+            if (removed.isEmpty()) return removed;
+            header.force();
+
+            final long size = channel.size();
+            if (!empty && usedSectors * SECTOR < size) {
+                try {
+                    channel.truncate(usedSectors * SECTOR);
+                    freedBytes += size - usedSectors * SECTOR;
+                } catch (IOException ignored) {
+                    // some platforms do not truncate mapped files, the sectors are reused by the server
+                }
+            }
+        }
+
+        if (empty) {
+            freedBytes += file.length();
+            Files.deleteIfExists(file.toPath());
+            deletedFiles++;
+        }
+        return removed;
+    }
+}
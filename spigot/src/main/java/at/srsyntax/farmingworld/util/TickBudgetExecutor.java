@@ -0,0 +1,67 @@
+package at.srsyntax.farmingworld.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+public class TickBudgetExecutor implements Executor, Runnable {
+
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final long budget;
+
+    public TickBudgetExecutor(int budgetMillis) {
+        this.budget = TimeUnit.MILLISECONDS.toNanos(Math.max(budgetMillis, 1));
+    }
+
+    @Override
+    public void execute(Runnable runnable) {
+        queue.add(runnable);
+    }
+
+    /**
+     * Runs the queued tasks until the budget of this tick is used up.
+     * At least one task is run per tick, so the queue is never starved.
+     */
+    @Override
+    public void run() {
+        final long deadline = System.nanoTime() + budget;
+        Runnable runnable;
+
+        do {
+            if ((runnable = queue.poll()) == null) return;
+            try {
+                runnable.run();
+            } catch (Exception exception) {
+                exception.printStackTrace();
+            }
+        } while (System.nanoTime() < deadline);
+    }
+
+    public int size() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,56 @@
+package at.srsyntax.farmingworld.util;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Measures the time between two server ticks. Spigot has no MSPT API, but a tick
+ * which takes longer than 50 ms delays the next one, so the smoothed interval
+ * shows whether the server keeps up.
+ */
+public class TickMonitor implements Runnable {
+
+    private static final double ALPHA = .1D;
+
+    private long lastTick;
+    private double averageMillis = 50D;
+
+    @Override
+    public void run() {
+        final long now = System.nanoTime();
+        if (lastTick != 0L) {
+            final double millis = (now - lastTick) / 1_000_000D;
+            averageMillis = ALPHA * millis + (1D - ALPHA) * averageMillis;
+        }
+        lastTick = now;
+    }
+
+    public double getAverageMillis() {
+        return averageMillis;
+    }
+
+    public double getTps() {
+        return Math.min(20D, 1000D / averageMillis);
+    }
+}
@@ -0,0 +1,149 @@
+package at.srsyntax.farmingworld.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Deletes world folders in two steps. The folder is renamed into the trash
+ * directory on the calling thread, which only takes a directory entry update,
+ * and the tree is deleted on a background thread afterwards. Whatever is left in
+ * the trash when the server stops is deleted on the next start.
+ */
+public class WorldTrash {
+
+    public static final String DIRECTORY = ".fw-trash";
+    private static final long PROGRESS_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    private final Logger logger;
+    private final Path trash;
+    private final ExecutorService executor;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public WorldTrash(Logger logger, File worldContainer) {
+        this.logger = logger;
+        this.trash = worldContainer.toPath().resolve(DIRECTORY);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "FarmingWorld-Trash");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Moves the folder into the trash and deletes it in the background. If the
+     * folder can not be moved it is deleted in place, still in the background.
+     */
+    public void delete(File folder) {
+        if (!folder.exists()) return;
+        Path target = folder.toPath();
+        try {
+            Files.createDirectories(trash);
+            target = Files.move(target, trash.resolve(folder.getName() + "-" + System.nanoTime()), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            logger.warning("Could not move " + folder.getName() + " to the trash: " + exception.getMessage());
+        }
+        submit(target);
+    }
+
+    /**
+     * Continues deleting what is left in the trash.
+     */
+    public void resume() {
+        if (!Files.isDirectory(trash)) return;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(trash)) {
+            for (Path path : stream) {
+                logger.info("Resume deleting " + path.getFileName());
+                submit(path);
+            }
+        } catch (IOException exception) {
+            logger.warning("Could not read the trash: " + exception.getMessage());
+        }
+    }
+
+    public int getPending() {
+        return pending.get();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void submit(Path path) {
+        pending.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                deleteTree(path);
+            } catch (IOException exception) {
+                logger.warning("Could not delete " + path.getFileName() + ": " + exception.getMessage());
+            } finally {
+                pending.decrementAndGet();
+            }
+        });
+    }
+
+    private void deleteTree(Path root) throws IOException {
+        final long start = System.nanoTime();
+        final long[] deleted = new long[2]; // files, bytes
+        final long[] lastReport = {start};
+
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                if (Thread.currentThread().isInterrupted()) return FileVisitResult.TERMINATE;
+                Files.delete(file);
+                deleted[0]++;
+                deleted[1] += attributes.size();
+
+                final long now = System.nanoTime();
+                if (now - lastReport[0] >= PROGRESS_INTERVAL) {
+                    lastReport[0] = now;
+                    logger.info(String.format("Deleting %s: %d files, %d MB so far", root.getFileName(), deleted[0], deleted[1] >> 20));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exception) throws IOException {
+                if (exception != null) throw exception;
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        if (Files.exists(root)) return;
+        final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info(String.format("Deleted %s: %d files, %d MB in %d ms", root.getFileName(), deleted[0], deleted[1] >> 20, millis));
+    }
+}
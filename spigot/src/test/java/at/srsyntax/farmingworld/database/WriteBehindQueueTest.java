@@ -0,0 +1,125 @@
+package at.srsyntax.farmingworld.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+class WriteBehindQueueTest {
+
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    private WriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new WriteBehindQueue(Logger.getLogger("WriteBehindQueueTest"), WriteBehindQueueTest::connection);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        queue.close();
+    }
+
+    @Test
+    void saveAfterRangeDeleteSurvives() throws Exception {
+        queue.write("location:farm:1", record("save 1"));
+        queue.writeRange("location:farm", record("delete farm"));
+        queue.write("location:farm:1", record("save 1 again"));
+        flush();
+
+        assertEquals(List.of("delete farm", "save 1 again"), executed);
+    }
+
+    @Test
+    void rangeDeleteDropsEarlierRowWrites() throws Exception {
+        queue.write("location:farm:1", record("save 1"));
+        queue.write("location:farm:2", record("save 2"));
+        queue.write("location:farmland:1", record("save other"));
+        queue.writeRange("location:farm", record("delete farm"));
+        flush();
+
+        assertEquals(List.of("save other", "delete farm"), executed);
+    }
+
+    @Test
+    void repeatedRangeDeleteRunsAfterSave() throws Exception {
+        queue.writeRange("location:farm", record("delete farm"));
+        queue.write("location:farm:1", record("save 1"));
+        queue.writeRange("location:farm", record("delete farm again"));
+        flush();
+
+        assertEquals(List.of("delete farm again"), executed);
+    }
+
+    @Test
+    void readOnOwnConnectionSeesPendingWrites() throws Exception {
+        queue.close();
+        final Connection reader = connection();
+        queue = new WriteBehindQueue(Logger.getLogger("WriteBehindQueueTest"), WriteBehindQueueTest::connection, () -> reader);
+
+        queue.write("location:farm:1", record("save 1"));
+        final List<String> seen = queue.read(statements -> {
+            assertSame(reader, statements.getConnection());
+            return new ArrayList<>(executed);
+        });
+        assertEquals(List.of("save 1"), seen);
+    }
+
+    private WriteBehindQueue.Operation record(String name) {
+        return statements -> executed.add(name);
+    }
+
+    private void flush() throws Exception {
+        queue.read(statements -> null);
+    }
+
+    /*
+     * A connection which only knows transactions, the operations of the test do not run statements.
+     */
+    private static Connection connection() {
+        final boolean[] autoCommit = {true};
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "setAutoCommit" -> {
+                        autoCommit[0] = (boolean) args[0];
+                        yield null;
+                    }
+                    case "getAutoCommit" -> autoCommit[0];
+                    case "isValid" -> true;
+                    case "isClosed" -> false;
+                    default -> null;
+                });
+    }
+}
@@ -0,0 +1,152 @@
+package at.srsyntax.farmingworld.database.jdbc;
+
+import at.srsyntax.farmingworld.api.farmworld.FarmWorld;
+import at.srsyntax.farmingworld.api.farmworld.LocationCache;
+import at.srsyntax.farmingworld.config.PluginConfig;
+import at.srsyntax.farmingworld.database.DatabaseException;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+class PooledJdbcDatabaseTest {
+
+    private static final String URL = "jdbc:h2:mem:farmingworld;DB_CLOSE_DELAY=-1";
+
+    private final FarmWorld farmWorld = mock(FarmWorld.class);
+    private final World world = mock(World.class);
+    private PooledJdbcDatabase database;
+
+    @BeforeEach
+    void setUp() throws DatabaseException {
+        when(farmWorld.getName()).thenReturn("farm");
+        when(world.getName()).thenReturn("farm-1");
+        database = connect("server-a");
+    }
+
+    @AfterEach
+    void tearDown() throws DatabaseException, SQLException {
+        database.disconnect();
+        execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void savesAndReadsLocations() {
+        final var repository = database.getLocationRepository();
+        repository.save(farmWorld, 1L, new Location(world, 10, 64, 20));
+        repository.save(farmWorld, 2L, new Location(world, 30, 70, 40));
+
+        final Map<String, LocationCache> locations = repository.getLocations(farmWorld);
+        assertEquals(2, locations.size());
+        assertEquals("farm-1", locations.get("1").getWorld());
+        assertEquals(30D, locations.get("2").getX());
+    }
+
+    @Test
+    void saveAfterDeleteIsKept() {
+        final var repository = database.getLocationRepository();
+        repository.save(farmWorld, 1L, new Location(world, 10, 64, 20));
+        repository.deleteByFarmWorldName("farm");
+        repository.save(farmWorld, 2L, new Location(world, 30, 70, 40));
+
+        final Map<String, LocationCache> locations = repository.getLocations(farmWorld);
+        assertEquals(1, locations.size());
+        assertTrue(locations.containsKey("2"));
+    }
+
+    @Test
+    void deleteRemovesUnusedWorlds() throws SQLException {
+        final var repository = database.getLocationRepository();
+        repository.save(farmWorld, 1L, new Location(world, 10, 64, 20));
+        assertEquals(1, repository.getLocations(farmWorld).size());
+        repository.deleteByFarmWorldName("farm");
+
+        final int worlds = database.getQueue().read(statements -> {
+            try (var lease = statements.prepare("SELECT COUNT(*) FROM world");
+                 ResultSet resultSet = lease.getStatement().executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        });
+        assertEquals(0, worlds);
+    }
+
+    @Test
+    void migratesOverExistingSchema() throws DatabaseException, SQLException {
+        database.disconnect();
+        // the tables and the index exist, but the version was never recorded
+        execute("DROP TABLE schema_version");
+        database = connect("server-a");
+
+        database.getLocationRepository().save(farmWorld, 1L, new Location(world, 10, 64, 20));
+        assertEquals(1, database.getLocationRepository().getLocations(farmWorld).size());
+    }
+
+    @Test
+    void serversOnlyTouchTheirOwnRows() throws DatabaseException {
+        database.getLocationRepository().save(farmWorld, 1L, new Location(world, 10, 64, 20));
+        assertEquals(1, database.getLocationRepository().getLocations(farmWorld).size());
+
+        final PooledJdbcDatabase other = connect("server-b");
+        try {
+            assertTrue(other.getLocationRepository().getLocations().isEmpty());
+            other.getLocationRepository().deleteByFarmWorldName("farm");
+            assertTrue(other.getLocationRepository().getLocations(farmWorld).isEmpty());
+        } finally {
+            other.disconnect();
+        }
+        assertEquals(1, database.getLocationRepository().getLocations(farmWorld).size());
+    }
+
+    private PooledJdbcDatabase connect(String serverId) throws DatabaseException {
+        final Plugin plugin = mock(Plugin.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("FarmingWorld"));
+        final var database = new PooledJdbcDatabase(plugin, new PluginConfig.DatabaseConfig("jdbc", URL, "sa", "", serverId, 4, 10));
+        database.connect();
+        return database;
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
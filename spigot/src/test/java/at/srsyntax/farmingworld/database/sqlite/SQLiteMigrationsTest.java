@@ -0,0 +1,143 @@
+package at.srsyntax.farmingworld.database.sqlite;
+
+import at.srsyntax.farmingworld.api.farmworld.LocationCache;
+import at.srsyntax.farmingworld.database.MigrationRunner;
+import at.srsyntax.farmingworld.farmworld.LocationPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+class SQLiteMigrationsTest {
+
+    private static final String SERVER_ID = "server-1";
+
+    private Connection connection;
+    private MigrationRunner runner;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        runner = new MigrationRunner(Logger.getLogger(getClass().getName()), connection);
+        createVersion1();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    // the tables as the releases without schema_version created them
+    private void createVersion1() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE farm_world (name TEXT, current_world TEXT, next_world TEXT, created INTEGER )");
+            statement.execute("CREATE TABLE location_cache (farm_world TEXT, id TEXT, location TEXT)");
+            statement.execute("CREATE TABLE sign (farm_world TEXT, location TEXT)");
+        }
+        insert("INSERT INTO farm_world VALUES (?,?,?,?)", "farm", "farm-old", null, 100L);
+        // rows were inserted again on every save, the last one wins
+        insert("INSERT INTO farm_world VALUES (?,?,?,?)", "farm", "farm-1", "farm-2", 200L);
+        insert("INSERT INTO location_cache VALUES (?,?,?)", "farm", "9c4e3f0a", new LocationCache("farm-1", 10.5, 64, -20.5, 0, 90).toString());
+        insert("INSERT INTO location_cache VALUES (?,?,?)", "farm", "42", new LocationCache("farm-1", 1, 70, 1, 0, 0).toString());
+        insert("INSERT INTO location_cache VALUES (?,?,?)", "farm", "broken", "{not json");
+        insert("INSERT INTO sign VALUES (?,?)", "farm", new LocationCache("lobby", 3, 71, -4, 0, 0).toString());
+    }
+
+    private void insert(String sql, Object... values) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < values.length; i++)
+                statement.setObject(i + 1, values[i]);
+            statement.execute();
+        }
+    }
+
+    private List<String> query(String sql) throws SQLException {
+        final List<String> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            final int columns = resultSet.getMetaData().getColumnCount();
+            while (resultSet.next()) {
+                final List<String> row = new ArrayList<>();
+                for (int i = 1; i <= columns; i++)
+                    row.add(String.valueOf(resultSet.getObject(i)));
+                rows.add(String.join("|", row));
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    void upgradesVersion1ToTheLatestSchema() throws SQLException {
+        runner.migrate(SQLiteMigrations.create(SERVER_ID));
+
+        assertEquals(5, runner.getVersion());
+        assertEquals(List.of("server-1|farm|farm-1|farm-2|200|null"),
+                query("SELECT server_id, name, current_world, next_world, created, next_stage FROM farm_world"));
+    }
+
+    @Test
+    void movesJsonLocationsToTypedColumns() throws SQLException {
+        runner.migrate(SQLiteMigrations.create(SERVER_ID));
+
+        // the legacy id is replaced by the packed position, unreadable locations are dropped
+        assertEquals(List.of(
+                "server-1|farm|42|farm-1|1.0|70.0|1.0",
+                "server-1|farm|" + LocationPool.pack(10, 64, -21) + "|farm-1|10.5|64.0|-20.5"
+        ), query("SELECT l.server_id, l.farm_world, l.id, w.name, l.x, l.y, l.z FROM location_cache l JOIN world w ON w.id = l.world ORDER BY l.id"));
+        assertEquals(List.of("server-1|lobby|" + LocationPool.pack(3, 71, -4) + "|farm"),
+                query("SELECT s.server_id, w.name, s.position, s.farm_world FROM sign s JOIN world w ON w.id = s.world"));
+    }
+
+    @Test
+    void migratesOnlyOnce() throws SQLException {
+        runner.migrate(SQLiteMigrations.create(SERVER_ID));
+        runner.migrate(SQLiteMigrations.create("server-2"));
+
+        assertEquals(List.of("1", "2", "3", "4", "5"), query("SELECT version FROM schema_version ORDER BY version"));
+        assertEquals(List.of("server-1"), query("SELECT DISTINCT server_id FROM location_cache"));
+    }
+
+    @Test
+    void resumesFromAnInterruptedUpgrade() throws SQLException {
+        runner.migrate(SQLiteMigrations.create(SERVER_ID).subList(0, 3));
+        assertEquals(3, runner.getVersion());
+
+        runner.migrate(SQLiteMigrations.create(SERVER_ID));
+        assertEquals(5, runner.getVersion());
+        assertEquals(2, query("SELECT id FROM location_cache").size());
+    }
+}
@@ -0,0 +1,70 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import org.bukkit.World;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+class FarmWorldNamesTest {
+
+    private static FarmWorldImpl farmWorld(String name, String... aliases) {
+        return new FarmWorldImpl(name, null, 0, 60, 0, World.Environment.NORMAL, null, null, List.of(aliases));
+    }
+
+    private final FarmWorldImpl farm = farmWorld("Farm", "f"), farmNether = farmWorld("farm_nether"),
+            end = farmWorld("End", "farmend"), mining = farmWorld("mining");
+    private final FarmWorldNames names = FarmWorldNames.of(1, List.of(mining, farmNether, end, farm));
+
+    @Test
+    void completesPrefixIgnoringCase() {
+        assertEquals(List.of("Farm", "farm_nether"), names.complete("FA"));
+        assertEquals(List.of("farm_nether"), names.complete("farm_"));
+        assertEquals(List.of("End"), names.complete("e"));
+    }
+
+    @Test
+    void completesEverythingInOrderForEmptyPrefix() {
+        assertEquals(List.of("End", "Farm", "farm_nether", "mining"), names.complete(""));
+    }
+
+    @Test
+    void completesNothingBehindTheLastName() {
+        assertTrue(names.complete("z").isEmpty());
+        assertTrue(names.complete("miningx").isEmpty());
+        assertTrue(FarmWorldNames.of(1, List.of()).complete("a").isEmpty());
+    }
+
+    @Test
+    void namesWinOverAliases() {
+        assertSame(farm, names.get("FARM"));
+        assertSame(farm, names.get("f"));
+        assertSame(end, names.get("farmend"));
+        assertNull(names.get("nether"));
+        assertNull(names.get(null));
+    }
+}
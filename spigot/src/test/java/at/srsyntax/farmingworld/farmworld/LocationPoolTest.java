@@ -0,0 +1,100 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+class LocationPoolTest {
+
+    @Test
+    void packKeepsCoordinates() {
+        final int[][] positions = {
+                {0, 0, 0}, {1, 64, -1}, {-30_000_000, -64, 29_999_999}, {33_554_431, 2047, -33_554_432}, {-1, -2048, -1}
+        };
+        for (int[] position : positions) {
+            final long packed = LocationPool.pack(position[0], position[1], position[2]);
+            assertEquals(position[0], LocationPool.unpackX(packed));
+            assertEquals(position[1], LocationPool.unpackY(packed));
+            assertEquals(position[2], LocationPool.unpackZ(packed));
+        }
+    }
+
+    @Test
+    void popsInInsertionOrderAcrossTheEnd() {
+        final var pool = new LocationPool(8);
+        for (int i = 0; i < 6; i++) pool.push(i);
+        for (int i = 0; i < 6; i++) assertEquals(i, pool.pop());
+
+        // the head is at 6 now, the next positions wrap around the backing array
+        for (int i = 10; i < 18; i++) pool.push(i);
+        assertEquals(8, pool.size());
+        assertEquals(8L * Long.BYTES, pool.getMemoryUsage());
+        for (int i = 0; i < 8; i++) assertEquals(10 + i, pool.get(i));
+        for (int i = 10; i < 18; i++) assertEquals(i, pool.pop());
+        assertTrue(pool.isEmpty());
+    }
+
+    @Test
+    void growsWhileWrapped() {
+        final var pool = new LocationPool(8);
+        for (int i = 0; i < 5; i++) pool.push(i);
+        for (int i = 0; i < 5; i++) pool.pop();
+        for (int i = 0; i < 12; i++) pool.push(i);
+
+        assertEquals(16L * Long.BYTES, pool.getMemoryUsage());
+        for (int i = 0; i < 12; i++) assertEquals(i, pool.pop());
+    }
+
+    @Test
+    void removeLastTakesTheNewestPosition() {
+        final var pool = new LocationPool(8);
+        for (int i = 0; i < 7; i++) pool.push(i);
+        for (int i = 0; i < 6; i++) pool.pop();
+        pool.push(7);
+        pool.push(8);
+
+        assertEquals(8, pool.removeLast());
+        assertEquals(7, pool.removeLast());
+        assertEquals(6, pool.removeLast());
+        assertThrows(NoSuchElementException.class, pool::removeLast);
+        assertThrows(NoSuchElementException.class, pool::pop);
+    }
+
+    @Test
+    void trimKeepsOrder() {
+        final var pool = new LocationPool(64);
+        for (int i = 0; i < 60; i++) pool.push(i);
+        for (int i = 0; i < 57; i++) pool.pop();
+        pool.push(60);
+
+        pool.trim(4);
+        assertEquals(8L * Long.BYTES, pool.getMemoryUsage());
+        assertEquals(4, pool.size());
+        for (int i = 57; i <= 60; i++) assertEquals(i, pool.pop());
+    }
+}
@@ -0,0 +1,90 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+class PoolSizeControllerTest {
+
+    private static final long SAMPLE = 10_000L;
+
+    private static void demand(PoolSizeController controller, int teleports) {
+        for (int i = 0; i < teleports; i++) controller.recordDemand();
+    }
+
+    @Test
+    void usesTheMaximumBeforeTheFirstSample() {
+        final var controller = new PoolSizeController(0L);
+        demand(controller, 100);
+        controller.update(SAMPLE - 1, SAMPLE, .5D);
+
+        assertEquals(-1D, controller.getDemandPerMinute());
+        assertEquals(50, controller.getTarget(5, 50, 60));
+    }
+
+    @Test
+    void firstSampleIsTakenAsIs() {
+        final var controller = new PoolSizeController(0L);
+        demand(controller, 20);
+        controller.update(SAMPLE, SAMPLE, .5D);
+
+        assertEquals(120D, controller.getDemandPerMinute(), 1e-9);
+        assertEquals(60, controller.getTarget(5, 100, 30));
+    }
+
+    @Test
+    void smoothsLaterSamples() {
+        final var controller = new PoolSizeController(0L);
+        demand(controller, 20);
+        controller.update(SAMPLE, SAMPLE, .25D);
+        controller.update(2 * SAMPLE, SAMPLE, .25D);
+        demand(controller, 40);
+        controller.update(3 * SAMPLE, SAMPLE, .25D);
+
+        // 2/s, then .25 * 0 + .75 * 2 = 1.5/s, then .25 * 4 + .75 * 1.5 = 2.125/s
+        assertEquals(2.125D * 60D, controller.getDemandPerMinute(), 1e-9);
+    }
+
+    @Test
+    void ratesByTheElapsedTime() {
+        final var controller = new PoolSizeController(0L);
+        demand(controller, 30);
+        controller.update(3 * SAMPLE, SAMPLE, .5D);
+
+        assertEquals(60D, controller.getDemandPerMinute(), 1e-9);
+    }
+
+    @Test
+    void clampsTheTarget() {
+        final var controller = new PoolSizeController(0L);
+        controller.update(SAMPLE, SAMPLE, .5D);
+        assertEquals(5, controller.getTarget(5, 50, 60));
+
+        demand(controller, 1_000);
+        controller.update(2 * SAMPLE, SAMPLE, 1D);
+        assertEquals(50, controller.getTarget(5, 50, 60));
+    }
+}
@@ -0,0 +1,78 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+class TargetDispersionTest {
+
+    @Test
+    void rejectsCloseTargets() {
+        final var dispersion = new TargetDispersion(32, 10, 10);
+        assertTrue(dispersion.tryAdd(0, 0));
+        assertFalse(dispersion.tryAdd(10, 10));
+        assertTrue(dispersion.tryAdd(100, 100));
+    }
+
+    @Test
+    void forgetsOldestTargetAfterRejections() {
+        final var dispersion = new TargetDispersion(32, 10, 10);
+        assertTrue(dispersion.tryAdd(0, 0));
+        for (int i = 0; i < TargetDispersion.REJECTION_LIMIT; i++)
+            assertFalse(dispersion.tryAdd(0, 0));
+        assertEquals(0, dispersion.size());
+        assertTrue(dispersion.tryAdd(0, 0));
+    }
+
+    @Test
+    void fullRegionRecovers() {
+        final var dispersion = new TargetDispersion(1, 1, 10);
+        assertTrue(dispersion.tryAdd(0, 0));
+        for (int i = 0; i < TargetDispersion.REJECTION_LIMIT; i++)
+            assertFalse(dispersion.tryAdd(100 + i * 4, 100));
+        assertTrue(dispersion.tryAdd(100, 100));
+    }
+
+    @Test
+    void smallBorderKeepsAcceptingTargets() {
+        final int borderSize = 64, memory = 100;
+        final var dispersion = TargetDispersion.create(borderSize, 500, 1, memory);
+        final var random = new Random(42);
+
+        for (int round = 0; round < 20; round++) {
+            int accepted = 0;
+            for (int i = 0; i < 1000; i++) {
+                final int x = random.nextInt(borderSize) - borderSize / 2;
+                final int z = random.nextInt(borderSize) - borderSize / 2;
+                if (dispersion.tryAdd(x, z)) accepted++;
+            }
+            assertTrue(accepted > 0, "no target accepted in round " + round);
+        }
+        assertTrue(dispersion.size() <= memory);
+    }
+}
@@ -0,0 +1,95 @@
+package at.srsyntax.farmingworld.farmworld;
+
+import org.bukkit.World;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+class WorldIndexTest {
+
+    private static World world(String name, UUID uid) {
+        final World world = mock(World.class);
+        when(world.getName()).thenReturn(name);
+        when(world.getUID()).thenReturn(uid);
+        return world;
+    }
+
+    private static FarmWorldImpl farmWorld(String name) {
+        return new FarmWorldImpl(name, null, 0, 60, 0, World.Environment.NORMAL, null, null, List.of());
+    }
+
+    private final WorldIndex index = new WorldIndex();
+    private final FarmWorldImpl farm = farmWorld("farm"), nether = farmWorld("nether");
+
+    @Test
+    void findsWorldsByUid() {
+        final World current = world("farm-1", UUID.randomUUID()), next = world("farm-2", UUID.randomUUID());
+        index.put(current, farm);
+        index.put(next, farm);
+        index.put(null, nether);
+
+        assertSame(farm, index.get(current));
+        assertSame(farm, index.get(next));
+        assertNull(index.get(world("nether-1", UUID.randomUUID())));
+    }
+
+    @Test
+    void fallsBackToTheNameForANewUid() {
+        index.put(world("farm-1", UUID.randomUUID()), farm);
+        assertSame(farm, index.get(world("FARM-1", UUID.randomUUID())));
+    }
+
+    @Test
+    void removesByWorldAndName() {
+        final World current = world("farm-1", UUID.randomUUID()), next = world("farm-2", UUID.randomUUID());
+        index.put(current, farm);
+        index.put(next, farm);
+
+        index.remove(current);
+        assertNull(index.get(current));
+        index.remove("Farm-2");
+        assertSame(farm, index.get(next));
+        assertNull(index.get(world("farm-2", UUID.randomUUID())));
+    }
+
+    @Test
+    void removesAllWorldsOfAFarmWorld() {
+        final World current = world("farm-1", UUID.randomUUID()), other = world("nether-1", UUID.randomUUID());
+        index.put(current, farm);
+        index.put(world("farm-2", UUID.randomUUID()), farm);
+        index.put(other, nether);
+
+        index.removeAll(farm);
+        assertNull(index.get(current));
+        assertNull(index.get(world("farm-2", UUID.randomUUID())));
+        assertSame(nether, index.get(other));
+    }
+}
@@ -0,0 +1,145 @@
+package at.srsyntax.farmingworld.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022-2024 Marcel Haberl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+class RegionPrunerTest {
+
+    private static final int SECTOR = 4096;
+    private static final long CREATED = 1_000, CUTOFF = 2_000;
+
+    @TempDir
+    File worldFolder;
+
+    /**
+     * @param chunks every chunk as {index, sector offset, sector count, saved}
+     */
+    private File writeRegion(String folder, String name, int[]... chunks) throws IOException {
+        int sectors = 2;
+        for (int[] chunk : chunks) sectors = Math.max(sectors, chunk[1] + chunk[2]);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(sectors * SECTOR);
+        for (int[] chunk : chunks) {
+            buffer.putInt(chunk[0] * 4, chunk[1] << 8 | chunk[2]);
+            buffer.putInt(SECTOR + chunk[0] * 4, chunk[3]);
+        }
+        final File file = new File(new File(worldFolder, folder), name);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), buffer.array());
+        return file;
+    }
+
+    private static int location(File file, int index) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(file.toPath())).getInt(index * 4);
+    }
+
+    private static int saved(File file, int index) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(file.toPath())).getInt(SECTOR + index * 4);
+    }
+
+    @Test
+    void removesChunksSavedBetweenCreationAndCutoff() throws IOException {
+        final File region = writeRegion("region", "r.0.0.mca",
+                new int[]{0, 2, 1, 500},   // copied from the template
+                new int[]{1, 3, 1, 1_500}, // stale
+                new int[]{5, 4, 2, 2_500}, // saved recently
+                new int[]{7, 6, 3, 1_999});
+
+        final var pruner = new RegionPruner();
+        pruner.prune(worldFolder, CREATED, CUTOFF);
+
+        assertEquals(2, pruner.getPrunedChunks());
+        assertEquals(0, pruner.getDeletedFiles());
+        assertEquals(2 << 8 | 1, location(region, 0));
+        assertEquals(0, location(region, 1));
+        assertEquals(0, saved(region, 1));
+        assertEquals(4 << 8 | 2, location(region, 5));
+        assertEquals(2_500, saved(region, 5));
+        assertEquals(0, location(region, 7));
+    }
+
+    @Test
+    void cutsTheFileBehindTheLastUsedSector() throws IOException {
+        final File region = writeRegion("region", "r.0.0.mca",
+                new int[]{0, 2, 2, 2_500},
+                new int[]{1, 4, 4, 1_500});
+
+        final var pruner = new RegionPruner();
+        pruner.prune(worldFolder, CREATED, CUTOFF);
+
+        // some platforms do not truncate a file which was mapped, the header is edited either way
+        assertTrue(region.length() == 4 * SECTOR || region.length() == 8 * SECTOR);
+        assertEquals(8 * SECTOR - region.length(), pruner.getFreedBytes());
+        assertEquals(0, location(region, 1));
+    }
+
+    @Test
+    void deletesEmptyRegionsAndPrunesTheirCompanions() throws IOException {
+        final File region = writeRegion("region", "r.1.-1.mca",
+                new int[]{3, 2, 1, 1_200},
+                new int[]{4, 3, 1, 1_300});
+        // the entities of a chunk are saved with their own timestamp
+        final File entities = writeRegion("entities", "r.1.-1.mca",
+                new int[]{3, 2, 1, 2_900},
+                new int[]{9, 3, 1, 2_900});
+
+        final var pruner = new RegionPruner();
+        pruner.prune(worldFolder, CREATED, CUTOFF);
+
+        assertFalse(region.exists());
+        assertEquals(1, pruner.getDeletedFiles());
+        assertEquals(2, pruner.getPrunedChunks());
+        assertEquals(0, location(entities, 3));
+        assertEquals(3 << 8 | 1, location(entities, 9));
+    }
+
+    @Test
+    void skipsFilesWithoutHeader() throws IOException {
+        final File region = new File(new File(worldFolder, "region"), "r.0.0.mca");
+        region.getParentFile().mkdirs();
+        Files.write(region.toPath(), new byte[SECTOR]);
+
+        final var pruner = new RegionPruner();
+        pruner.prune(worldFolder, CREATED, CUTOFF);
+
+        assertEquals(SECTOR, region.length());
+        assertEquals(0, pruner.getPrunedChunks());
+    }
+
+    @Test
+    void ignoresWorldsWithoutRegions() {
+        final var pruner = new RegionPruner();
+        pruner.prune(new File(worldFolder, "missing"), CREATED, CUTOFF);
+        assertEquals(0, pruner.getPrunedChunks());
+    }
+}